@@ -0,0 +1,79 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many threads adding fields to random rules of one shared policy, or reading a consistent copy of it: a
+ * single lock around in-place {@link JsonNodeUtils} edits against {@link ConcurrentDocumentStore}. Scaling
+ * shows when the thread count is varied, e.g. {@code java -jar target/benchmarks.jar
+ * ConcurrentDocumentStoreBenchmark -t 1} versus {@code -t 8}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ConcurrentDocumentStoreBenchmark {
+
+    @Param({"64", "1024"})
+    public int rules;
+
+    private JsonNode document;
+    private ConcurrentDocumentStore store;
+    private JsonPath[] rulePaths;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        document = PolicyDocuments.generate(rules, 1, 4);
+        store = new ConcurrentDocumentStore(document);
+        rulePaths = new JsonPath[rules];
+        for (int i = 0; i < rules; i++) {
+            rulePaths[i] = JsonPath.parse("policy.rules." + i);
+        }
+    }
+
+    @Benchmark
+    public void globalLock() {
+        int rule = ThreadLocalRandom.current().nextInt(rules);
+        synchronized (this) {
+            JsonNodeUtils.addAFieldByPath(document.get("policy").get("rules").get(rule), JsonPath.ROOT, "owner", "alice");
+        }
+    }
+
+    /** A consistent read under the global lock has to copy the document before releasing it. */
+    @Benchmark
+    public JsonNode globalLockSnapshot() {
+        synchronized (this) {
+            return document.deepCopy();
+        }
+    }
+
+    @Benchmark
+    public void documentStore() {
+        int rule = ThreadLocalRandom.current().nextInt(rules);
+        store.modify(rulePaths[rule], node -> JsonNodeUtils.addAFieldByPath(node, JsonPath.ROOT, "owner", "alice"));
+    }
+
+    @Benchmark
+    public JsonNode documentStoreSnapshot() {
+        return store.snapshot();
+    }
+}
@@ -0,0 +1,76 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former per-element {@code new ObjectMapper().valueToTree(new HashMap<>())} with the shared node
+ * factory used by {@link JsonNodeUtils#convertEmptyStringFieldToEmptyMap}. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmptyMapBenchmark {
+
+    private static final String[] PATH = {"rules"};
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private JsonNode template;
+    private JsonNode document;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ArrayNode rules = JsonNodeFactory.instance.arrayNode();
+        for (int i = 0; i < size; i++) {
+            rules.addObject().putObject("profiles").put("group", "");
+        }
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
+        root.set("rules", rules);
+        template = root;
+    }
+
+    @Setup(Level.Invocation)
+    public void copyDocument() {
+        document = template.deepCopy();
+    }
+
+    @Benchmark
+    public JsonNode legacyMapperPerElement() {
+        for (JsonNode node : document.get("rules")) {
+            if (node.get("profiles").get("group").asText().isEmpty()) {
+                ((ObjectNode) node).replace("profiles", new ObjectMapper().valueToTree(new HashMap<>()));
+            }
+        }
+        return document;
+    }
+
+    @Benchmark
+    public JsonNode sharedNodeFactory() {
+        JsonNodeUtils.convertEmptyStringFieldToEmptyMap(PATH, document, "profiles", "group");
+        return document;
+    }
+}
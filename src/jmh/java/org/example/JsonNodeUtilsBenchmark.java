@@ -0,0 +1,230 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every public {@link JsonNodeUtils} method over {@link PolicyDocuments} of varying size.
+ * Run with {@code java -jar target/benchmarks.jar JsonNodeUtilsBenchmark -prof gc} to get allocation rates.
+ * <p>
+ * Methods that destroy their input run against a fresh copy made before each invocation; the copy shows up in
+ * the GC profiler, so subtract {@link #copyBaseline} from their {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonNodeUtilsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Documents {
+
+        @Param({"10", "1000", "50000"})
+        public int arrayLength;
+
+        @Param({"1", "4"})
+        public int depth;
+
+        @Param({"4", "16"})
+        public int fieldCount;
+
+        JsonNode template;
+        JsonNode document;
+        String[] ownerPath;
+        JsonPath ownerJsonPath;
+        String[] matchPath;
+        Map<String, Boolean> readOnly;
+        TransformPlan plan;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            template = PolicyDocuments.generate(arrayLength, depth, fieldCount);
+            document = template.deepCopy();
+            ownerPath = PolicyDocuments.metaOwnerPath(depth);
+            ownerJsonPath = JsonPath.compile(ownerPath);
+            matchPath = PolicyDocuments.matchPath(depth);
+            readOnly = PolicyDocuments.readOnlyRules(arrayLength);
+            plan = TransformPlan.builder()
+                    .removeFieldOfListByPathAndName(PolicyDocuments.RULES, "f0")
+                    .addPositionByPath(PolicyDocuments.RULES, "position")
+                    .addFieldToArrayFieldByPathAndFieldName(PolicyDocuments.RULES, "readOnly", "name", readOnly)
+                    .convertEmptyStringFieldToEmptyMap(PolicyDocuments.RULES, "profiles", "group")
+                    .cleanFieldOfTwoEmptyFields(PolicyDocuments.RULES, "details", "author", "publisher")
+                    .cleanArrayFieldIfArrayIsEmpty(PolicyDocuments.RULES, matchPath, "ports")
+                    .build();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FreshDocument {
+
+        JsonNode document;
+
+        @Setup(Level.Invocation)
+        public void copy(Documents documents) {
+            document = documents.template.deepCopy();
+        }
+    }
+
+    @Benchmark
+    public JsonNode copyBaseline(FreshDocument fresh) {
+        return fresh.document;
+    }
+
+    @Benchmark
+    public JsonNode addAStringFieldRootLevel(Documents documents) {
+        JsonNodeUtils.addAStringFieldRootLevel(documents.document, "status", "active");
+        return documents.document;
+    }
+
+    @Benchmark
+    public JsonNode addAIntFieldRootLevel(Documents documents) {
+        JsonNodeUtils.addAStringFieldRootLevel(documents.document, "revision", 7);
+        return documents.document;
+    }
+
+    @Benchmark
+    public JsonNode addABooleanFieldRootLevel(Documents documents) {
+        JsonNodeUtils.addABooleanFieldRootLevel(documents.document, "enabled", true);
+        return documents.document;
+    }
+
+    @Benchmark
+    public JsonNode removeAFieldRootLevel(FreshDocument fresh) {
+        JsonNodeUtils.removeAFieldRootLevel(fresh.document, "policy");
+        return fresh.document;
+    }
+
+    @Benchmark
+    public String getStringFieldValueByPath(Documents documents) {
+        return JsonNodeUtils.getStringFieldValueByPath(documents.document, documents.ownerPath);
+    }
+
+    @Benchmark
+    public String getStringFieldValueByCompiledPath(Documents documents) {
+        return JsonNodeUtils.getStringFieldValueByPath(documents.document, documents.ownerJsonPath);
+    }
+
+    @Benchmark
+    public List<String> getSListFieldValueByPath(Documents documents) {
+        return JsonNodeUtils.getSListFieldValueByPath(documents.document, PolicyDocuments.TAGS);
+    }
+
+    @Benchmark
+    public JsonNode getJsonNodeByJsonNodeAndPath(Documents documents) {
+        return JsonNodeUtils.getJsonNodeByJsonNodeAndPath(documents.document, documents.ownerPath);
+    }
+
+    @Benchmark
+    public JsonNode addAFieldByPath(Documents documents) {
+        JsonNodeUtils.addAFieldByPath(documents.document, PolicyDocuments.POLICY, "status", "active");
+        return documents.document;
+    }
+
+    @Benchmark
+    public JsonNode removeFieldByPathAndName(FreshDocument fresh) {
+        JsonNodeUtils.removeFieldByPathAndName(fresh.document, PolicyDocuments.POLICY, "meta");
+        return fresh.document;
+    }
+
+    @Benchmark
+    public JsonNode removeFieldOfListByPathAndName(FreshDocument fresh) {
+        JsonNodeUtils.removeFieldOfListByPathAndName(fresh.document, PolicyDocuments.RULES, "f0");
+        return fresh.document;
+    }
+
+    @Benchmark
+    public JsonNode removeAFieldByPathFieldsAndNameFieldTwoIsLIst(FreshDocument fresh) {
+        JsonNodeUtils.removeAFieldByPathFieldsAndNameFieldTwoIsLIst(fresh.document, PolicyDocuments.RULES, "f0");
+        return fresh.document;
+    }
+
+    @Benchmark
+    public JsonNode removeAFieldByPathFieldsAndNameFieldTwoIsLIstAndFieldToBeRemovedIsFarOneLayer(FreshDocument fresh) {
+        JsonNodeUtils.removeAFieldByPathFieldsAndNameFieldTwoIsLIstAndFieldToBeRemovedIsFarOneLayer(
+                fresh.document, new String[]{"policy", "rules", "details"}, "author");
+        return fresh.document;
+    }
+
+    @Benchmark
+    public JsonNode convertFieldByPath(FreshDocument fresh) {
+        JsonNodeUtils.convertFieldByPath(fresh.document, new String[]{"policy", "rules", "ports"}, ports -> String.join(",", ports));
+        return fresh.document;
+    }
+
+    @Benchmark
+    public JsonNode addPositionByPath(Documents documents) {
+        JsonNodeUtils.addPositionByPath(documents.document, PolicyDocuments.RULES, "position");
+        return documents.document;
+    }
+
+    @Benchmark
+    public JsonNode addFieldToArrayFieldByPathAndFieldNameFromMap(Documents documents) {
+        JsonNodeUtils.addFieldToArrayFieldByPathAndFieldName(documents.document, PolicyDocuments.RULES, "readOnly", "name", documents.readOnly);
+        return documents.document;
+    }
+
+    @Benchmark
+    public JsonNode addFieldToArrayFieldByPathAndFieldNameBoolean(Documents documents) {
+        JsonNodeUtils.addFieldToArrayFieldByPathAndFieldName(documents.document, PolicyDocuments.RULES, "enabled", true);
+        return documents.document;
+    }
+
+    @Benchmark
+    public JsonNode addFieldToArrayFieldByPathAndFieldNameString(Documents documents) {
+        JsonNodeUtils.addFieldToArrayFieldByPathAndFieldName(documents.document, PolicyDocuments.RULES, "status", "active");
+        return documents.document;
+    }
+
+    @Benchmark
+    public JsonNode convertEmptyStringFieldToEmptyMap(FreshDocument fresh) {
+        JsonNodeUtils.convertEmptyStringFieldToEmptyMap(PolicyDocuments.RULES, fresh.document, "profiles", "group");
+        return fresh.document;
+    }
+
+    @Benchmark
+    public JsonNode cleanFieldOfTwoEmptyFields(FreshDocument fresh) {
+        JsonNodeUtils.cleanFieldOfTwoEmptyFields(fresh.document, PolicyDocuments.RULES, "details", "author", "publisher");
+        return fresh.document;
+    }
+
+    @Benchmark
+    public JsonNode cleanArrayFieldIfArrayIsEmpty(FreshDocument fresh, Documents documents) {
+        JsonNodeUtils.cleanArrayFieldIfArrayIsEmpty(fresh.document, PolicyDocuments.RULES, documents.matchPath, "ports");
+        return fresh.document;
+    }
+
+    @Benchmark
+    public JsonNode portalPipelineSequential(FreshDocument fresh, Documents documents) {
+        JsonNode document = fresh.document;
+        JsonNodeUtils.removeFieldOfListByPathAndName(document, PolicyDocuments.RULES, "f0");
+        JsonNodeUtils.addPositionByPath(document, PolicyDocuments.RULES, "position");
+        JsonNodeUtils.addFieldToArrayFieldByPathAndFieldName(document, PolicyDocuments.RULES, "readOnly", "name", documents.readOnly);
+        JsonNodeUtils.convertEmptyStringFieldToEmptyMap(PolicyDocuments.RULES, document, "profiles", "group");
+        JsonNodeUtils.cleanFieldOfTwoEmptyFields(document, PolicyDocuments.RULES, "details", "author", "publisher");
+        JsonNodeUtils.cleanArrayFieldIfArrayIsEmpty(document, PolicyDocuments.RULES, documents.matchPath, "ports");
+        return document;
+    }
+
+    @Benchmark
+    public JsonNode portalPipelineFusedPlan(FreshDocument fresh, Documents documents) {
+        documents.plan.apply(fresh.document);
+        return fresh.document;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throw-and-catch versus the {@code try*} result methods over a batch of small documents, {@code missingPercent}
+ * of which lack the target path. HotSpot stops filling in stack traces for implicit exceptions that are thrown
+ * often in compiled code; run with {@code -jvmArgsAppend -XX:-OmitStackTraceInFastThrow} to see the cost of the
+ * exceptions that are still built in full, such as those thrown from cold or interpreted code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MissingPathBenchmark {
+
+    private static final int DOCUMENTS = 1024;
+    private static final JsonPath OWNER = JsonPath.compile(PolicyDocuments.metaOwnerPath(2));
+    private static final JsonPath RULES = JsonPath.compile(PolicyDocuments.RULES);
+
+    @Param({"0", "10", "50"})
+    public int missingPercent;
+
+    private JsonNode[] documents;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(7);
+        documents = new JsonNode[DOCUMENTS];
+        for (int i = 0; i < DOCUMENTS; i++) {
+            if (random.nextInt(100) < missingPercent) {
+                ObjectNode partial = JsonNodeFactory.instance.objectNode();
+                partial.putObject("policy").put("name", "partial-" + i);
+                documents[i] = partial;
+            } else {
+                documents[i] = PolicyDocuments.generate(8, 2, 2);
+            }
+        }
+    }
+
+    @Benchmark
+    public int getStringThrowAndCatch() {
+        int failures = 0;
+        for (JsonNode document : documents) {
+            try {
+                JsonNodeUtils.getStringFieldValueByPath(document, OWNER);
+            } catch (NullPointerException e) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    @Benchmark
+    public int getStringResult() {
+        int failures = 0;
+        for (JsonNode document : documents) {
+            if (!JsonNodeUtils.tryGetStringFieldValueByPath(document, OWNER).isOk()) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    @Benchmark
+    public int addPositionThrowAndCatch() {
+        int failures = 0;
+        for (JsonNode document : documents) {
+            try {
+                JsonNodeUtils.addPositionByPath(document, RULES, "position");
+            } catch (NullPointerException e) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    @Benchmark
+    public int addPositionResult() {
+        int failures = 0;
+        for (JsonNode document : documents) {
+            if (!JsonNodeUtils.tryAddPositionByPath(document, RULES, "position").isOk()) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+}
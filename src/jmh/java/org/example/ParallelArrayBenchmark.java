@@ -0,0 +1,126 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the array size at which {@link ParallelArrayProcessor} starts to beat the sequential methods.
+ * Run with {@code mvn -P benchmarks package && java -jar target/benchmarks.jar ParallelArrayBenchmark}.
+ * <p>
+ * {@code convertFieldByPath} replaces the arrays it reads, so each convert invocation works through
+ * {@link ConvertState#BATCH} copies prepared outside the timer; only the convert benchmarks pay for the copies,
+ * and the per-invocation timer overhead is spread over the batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelArrayBenchmark {
+
+    private static final String[] PATH = PolicyDocuments.RULES;
+    private static final String[] PORTS = {"policy", "rules", "ports"};
+
+    @Param({"256", "1024", "4096", "16384", "100000"})
+    public int size;
+
+    private JsonNode document;
+    private Map<String, Boolean> readOnly;
+    private ForkJoinPool pool;
+    private ParallelArrayProcessor processor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        document = PolicyDocuments.generate(size, 1, 4);
+        readOnly = PolicyDocuments.readOnlyRules(size);
+
+        pool = new ForkJoinPool();
+        processor = new ParallelArrayProcessor(pool, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class ConvertState {
+
+        static final int BATCH = 16;
+
+        private final JsonNode[] documents = new JsonNode[BATCH];
+
+        // Only the rule objects are copied: the conversion replaces their "ports" field but never edits the
+        // arrays it reads, so the copies can share every other node with the trial document.
+        @Setup(Level.Invocation)
+        public void copyForConvert(ParallelArrayBenchmark benchmark) {
+            ObjectNode policy = (ObjectNode) benchmark.document.get("policy");
+            for (int i = 0; i < BATCH; i++) {
+                ArrayNode rules = policy.arrayNode(benchmark.size);
+                for (JsonNode rule : policy.get("rules")) {
+                    rules.add(policy.objectNode().setAll((ObjectNode) rule));
+                }
+                ObjectNode root = policy.objectNode();
+                ObjectNode policyCopy = root.putObject("policy");
+                policyCopy.setAll(policy);
+                policyCopy.set("rules", rules);
+                documents[i] = root;
+            }
+        }
+    }
+
+    @Benchmark
+    public JsonNode addFieldSequential() {
+        JsonNodeUtils.addFieldToArrayFieldByPathAndFieldName(document, PATH, "readOnly", "name", readOnly);
+        return document;
+    }
+
+    @Benchmark
+    public JsonNode addFieldParallel() {
+        processor.addFieldToArrayFieldByPathAndFieldName(document, PATH, "readOnly", "name", readOnly);
+        return document;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ConvertState.BATCH)
+    public JsonNode[] convertFieldSequential(ConvertState state) {
+        for (JsonNode convertDocument : state.documents) {
+            JsonNodeUtils.convertFieldByPath(convertDocument, PORTS, ParallelArrayBenchmark::joinPorts);
+        }
+        return state.documents;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ConvertState.BATCH)
+    public JsonNode[] convertFieldParallel(ConvertState state) {
+        for (JsonNode convertDocument : state.documents) {
+            processor.convertFieldByPath(convertDocument, PORTS, ParallelArrayBenchmark::joinPorts);
+        }
+        return state.documents;
+    }
+
+    private static String joinPorts(List<String> ports) {
+        return String.join(",", ports);
+    }
+}
@@ -0,0 +1,104 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic policy documents for the benchmarks. The shape follows the portal payloads:
+ * <pre>
+ * {"policy": {"name": ..., "tags": [...], "meta": {"l1": {... {"owner": ...}}},
+ *             "rules": [{"name": "rule-0", "f0": ..., "ports": [...], "profiles": {"group": ""},
+ *                        "details": {"author": "", "publisher": ""}, "match": {"l1": {... {"ports": []}}}}]}}
+ * </pre>
+ * {@code arrayLength} is the number of rules, {@code depth} the nesting of the {@code meta} and {@code match}
+ * chains, and {@code fieldCount} the number of filler fields per rule.
+ */
+public final class PolicyDocuments {
+
+    public static final String[] RULES = {"policy", "rules"};
+    public static final String[] POLICY = {"policy"};
+    public static final String[] TAGS = {"policy", "tags"};
+
+    private static final String[] PROTOCOLS = {"tcp", "udp", "icmp"};
+
+    private PolicyDocuments() {
+    }
+
+    public static ObjectNode generate(int arrayLength, int depth, int fieldCount) {
+        Random random = new Random(42);
+        JsonNodeFactory factory = JsonNodeFactory.instance;
+        ObjectNode root = factory.objectNode();
+        ObjectNode policy = root.putObject("policy");
+        policy.put("name", "policy-1");
+        ArrayNode tags = policy.putArray("tags");
+        for (int i = 0; i < arrayLength; i++) {
+            tags.add("tag-" + random.nextInt(50));
+        }
+
+        ObjectNode meta = policy.putObject("meta");
+        for (int level = 1; level <= depth; level++) {
+            meta = meta.putObject("l" + level);
+        }
+        meta.put("owner", "portal");
+
+        ArrayNode rules = policy.putArray("rules");
+        for (int i = 0; i < arrayLength; i++) {
+            ObjectNode rule = rules.addObject();
+            rule.put("name", "rule-" + i);
+            rule.put("protocol", PROTOCOLS[random.nextInt(PROTOCOLS.length)]);
+            for (int f = 0; f < fieldCount; f++) {
+                rule.put("f" + f, "value-" + random.nextInt(100));
+            }
+            ArrayNode ports = rule.putArray("ports");
+            for (int p = random.nextInt(4); p >= 0; p--) {
+                ports.add(Integer.toString(1000 + random.nextInt(100)));
+            }
+            rule.putObject("profiles").put("group", random.nextBoolean() ? "" : "profile-" + random.nextInt(10));
+            boolean emptyDetails = random.nextBoolean();
+            rule.putObject("details").put("author", emptyDetails ? "" : "author").put("publisher", "");
+
+            ObjectNode match = rule.putObject("match");
+            for (int level = 1; level <= depth; level++) {
+                match = match.putObject("l" + level);
+            }
+            ArrayNode matchPorts = match.putArray("ports");
+            if (random.nextBoolean()) {
+                matchPorts.add("443");
+            }
+        }
+        return root;
+    }
+
+    public static String[] metaOwnerPath(int depth) {
+        String[] path = new String[depth + 3];
+        path[0] = "policy";
+        path[1] = "meta";
+        for (int level = 1; level <= depth; level++) {
+            path[level + 1] = "l" + level;
+        }
+        path[depth + 2] = "owner";
+        return path;
+    }
+
+    public static String[] matchPath(int depth) {
+        String[] path = new String[depth + 1];
+        path[0] = "match";
+        for (int level = 1; level <= depth; level++) {
+            path[level] = "l" + level;
+        }
+        return path;
+    }
+
+    public static Map<String, Boolean> readOnlyRules(int arrayLength) {
+        Map<String, Boolean> result = new HashMap<>();
+        for (int i = 0; i < arrayLength; i++) {
+            result.put("rule-" + i, i % 3 == 0);
+        }
+        return result;
+    }
+}
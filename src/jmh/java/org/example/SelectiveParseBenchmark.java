@@ -0,0 +1,72 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full {@code readTree} versus {@link SelectiveParser} for an edit of {@code policy.meta}, which is a small
+ * part of the document next to the {@code rules} and {@code tags} arrays. Run with {@code -prof gc} to
+ * compare allocation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectiveParseBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private byte[] input;
+    private TransformPlan plan;
+    private SelectiveParser selectiveParser;
+
+    @Setup
+    public void setUp() throws IOException {
+        ByteBuffer buffer = JsonBytes.writeToBuffer(PolicyDocuments.generate(size, 4, 8));
+        input = new byte[buffer.remaining()];
+        buffer.get(input);
+        plan = TransformPlan.builder().addAFieldByPath(new String[]{"policy", "meta"}, "reviewed", "true").build();
+        selectiveParser = SelectiveParser.forPlan(plan);
+    }
+
+    @Benchmark
+    public JsonNode fullParse() throws IOException {
+        return JsonBytes.read(input);
+    }
+
+    @Benchmark
+    public JsonNode selectiveParse() throws IOException {
+        return selectiveParser.parse(input);
+    }
+
+    @Benchmark
+    public ByteBuffer fullRoundTrip() throws IOException {
+        JsonNode jsonNode = JsonBytes.read(input);
+        plan.apply(jsonNode);
+        return JsonBytes.writeToBuffer(jsonNode);
+    }
+
+    @Benchmark
+    public ByteBuffer selectiveRoundTrip() throws IOException {
+        JsonNode jsonNode = selectiveParser.parse(input);
+        plan.apply(jsonNode);
+        return JsonBytes.writeToBuffer(jsonNode);
+    }
+}
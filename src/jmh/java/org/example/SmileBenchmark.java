@@ -0,0 +1,85 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text JSON against Smile for stored policy documents: parse, serialize, and a full load-transform-store
+ * round trip. The encoded sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmileBenchmark {
+
+    @Param({"64", "1024"})
+    public int rules;
+
+    private JsonNode document;
+    private byte[] json;
+    private byte[] smile;
+    private TransformPlan plan;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        document = PolicyDocuments.generate(rules, 3, 4);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonBytes.write(document, out);
+        json = out.toByteArray();
+        out.reset();
+        SmileBytes.write(document, out);
+        smile = out.toByteArray();
+        plan = TransformPlan.builder().addPositionByPath(PolicyDocuments.RULES, "position").build();
+        System.out.printf("%n%d rules: json %d bytes, smile %d bytes (%.0f%%)%n", rules, json.length, smile.length,
+                100.0 * smile.length / json.length);
+    }
+
+    @Benchmark
+    public JsonNode parseJson() throws IOException {
+        return JsonBytes.read(json);
+    }
+
+    @Benchmark
+    public JsonNode parseSmile() throws IOException {
+        return SmileBytes.read(smile);
+    }
+
+    @Benchmark
+    public ByteBuffer writeJson() throws IOException {
+        return JsonBytes.writeToBuffer(document);
+    }
+
+    @Benchmark
+    public ByteBuffer writeSmile() throws IOException {
+        return SmileBytes.writeToBuffer(document);
+    }
+
+    @Benchmark
+    public ByteBuffer transformJson() throws IOException {
+        return JsonBytes.transformToBuffer(json, plan::apply);
+    }
+
+    @Benchmark
+    public ByteBuffer transformSmile() throws IOException {
+        return SmileBytes.transformToBuffer(smile, plan::apply);
+    }
+}
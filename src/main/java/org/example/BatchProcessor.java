@@ -0,0 +1,155 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies a {@link TransformPlan} to every {@code *.json} file of a directory. Inputs up to
+ * {@value #MAX_BUFFERED_INPUT} bytes are read whole and parsed from the array; larger ones are parsed as a
+ * stream, so no input is buffered twice. Work is spread over a fixed number of workers with a bounded queue,
+ * and each result is written to a temporary file that is then atomically moved into place.
+ */
+public final class BatchProcessor {
+
+    public static final class Result {
+        private final long files;
+        private final long failures;
+        private final long bytesRead;
+        private final long bytesWritten;
+        private final long elapsedNanos;
+        private final List<String> errors;
+
+        Result(long files, long failures, long bytesRead, long bytesWritten, long elapsedNanos, List<String> errors) {
+            this.files = files;
+            this.failures = failures;
+            this.bytesRead = bytesRead;
+            this.bytesWritten = bytesWritten;
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+        }
+
+        public long getFiles() {
+            return files;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        public double filesPerSecond() {
+            return elapsedNanos == 0 ? 0 : files * 1e9 / elapsedNanos;
+        }
+
+        public double bytesPerSecond() {
+            return elapsedNanos == 0 ? 0 : bytesRead * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d files (%d failed), %d bytes in, %d bytes out, %.1f ms, %.1f files/s, %.1f MB/s",
+                    files, failures, bytesRead, bytesWritten, elapsedNanos / 1e6, filesPerSecond(), bytesPerSecond() / (1024 * 1024));
+        }
+    }
+
+    /**
+     * Mapping the inputs instead would leave one mapping per file alive until the buffers are collected, and
+     * Jackson copies mapped bytes into its own buffers anyway.
+     */
+    static final int MAX_BUFFERED_INPUT = 64 * 1024 * 1024;
+
+    private final TransformPlan plan;
+    private final int threads;
+
+    public BatchProcessor(TransformPlan plan, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.plan = plan;
+        this.threads = threads;
+    }
+
+    public Result process(Path inputDir, Path outputDir) throws IOException, InterruptedException {
+        Files.createDirectories(outputDir);
+        AtomicLong files = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        AtomicLong bytesRead = new AtomicLong();
+        AtomicLong bytesWritten = new AtomicLong();
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+        // A full queue makes the directory walker run the task itself, which keeps the backlog bounded.
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), new ThreadPoolExecutor.CallerRunsPolicy());
+        long start = System.nanoTime();
+        try (DirectoryStream<Path> inputs = Files.newDirectoryStream(inputDir, "*.json")) {
+            for (Path input : inputs) {
+                workers.execute(() -> {
+                    try {
+                        long[] sizes = processFile(input, outputDir.resolve(input.getFileName()));
+                        bytesRead.addAndGet(sizes[0]);
+                        bytesWritten.addAndGet(sizes[1]);
+                        files.incrementAndGet();
+                    } catch (IOException | RuntimeException e) {
+                        failures.incrementAndGet();
+                        errors.add(input.getFileName() + ": " + e.getMessage());
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        return new Result(files.get(), failures.get(), bytesRead.get(), bytesWritten.get(), System.nanoTime() - start, errors);
+    }
+
+    long[] processFile(Path input, Path output) throws IOException {
+        JsonNode jsonNode;
+        long size;
+        try (InputStream in = Files.newInputStream(input)) {
+            size = Files.size(input);
+            jsonNode = size <= MAX_BUFFERED_INPUT ? JsonBytes.read(in.readNBytes((int) size)) : JsonBytes.read(in);
+        }
+        plan.apply(jsonNode);
+
+        Path temp = Files.createTempFile(output.getParent(), "." + output.getFileName(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                JsonBytes.write(jsonNode, out);
+            }
+            long written = Files.size(temp);
+            Files.move(temp, output, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return new long[]{size, written};
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * A JSON document shared between threads. Readers take {@link #snapshot()}s: a published tree is never modified
+ * again, so it stays consistent for as long as the reader holds it. Writers update one subtree at a time, one
+ * writer at a time, in a working tree. Only containers copied since the last snapshot are edited in place;
+ * any other container on the way to the subtree is copied once and then reused by the following writes, and a
+ * subtree {@link #modify} copied is edited in place by later modifications until the next snapshot.
+ * <p>
+ * A write therefore costs the depth of its path plus the new subtree, and copies a wide array such as
+ * {@code policy.rules} or a rule once per snapshot taken, not once per write. Writers do not run side by side: giving
+ * disjoint subtrees their own locks would still have them copy and relink the same spine, and would need
+ * intention locks to keep a writer on {@code policy} from racing one on {@code policy.rules.3}. A snapshot is
+ * a volatile read while nothing was written since the last one; otherwise it briefly takes the writer lock to
+ * publish the working tree. Path segments on arrays are element indexes.
+ */
+public final class ConcurrentDocumentStore {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Containers of {@link #working} copied since the last snapshot; only these may be edited in place. */
+    private final Set<JsonNode> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+    /** Subtrees deep-copied by {@link #modify} since the last snapshot and not spliced into since. */
+    private final Set<JsonNode> copies = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder snapshots = new LongAdder();
+    private JsonNode working;
+    /** The last snapshot, or {@code null} when {@link #working} has changed since. */
+    private volatile JsonNode published;
+
+    /** Stores a copy of {@code document}. */
+    public ConcurrentDocumentStore(JsonNode document) {
+        this.working = document.deepCopy();
+        this.published = working;
+    }
+
+    /** The current document. It is shared with other readers and must not be modified. */
+    public JsonNode snapshot() {
+        JsonNode current = published;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (published == null) {
+                owned.clear();
+                copies.clear();
+                published = working;
+                snapshots.increment();
+            }
+            return published;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The node at {@code path} in the current document, or {@code null}; must not be modified. */
+    public JsonNode get(JsonPath path) {
+        return resolve(snapshot(), path);
+    }
+
+    /**
+     * Replaces the container at {@code prefix} with {@code function} applied to it. The function gets the
+     * current subtree, which may be shared with snapshots and must not be modified, and runs once while the
+     * writer lock is held.
+     *
+     * @throws IllegalArgumentException if {@code prefix} does not lead to an object or array
+     */
+    public void update(JsonPath prefix, UnaryOperator<JsonNode> function) {
+        lock.lock();
+        try {
+            JsonNode target = container(working, prefix);
+            JsonNode updated = function.apply(target);
+            // The same node back is either unchanged or a copy of this epoch edited in place, already linked in.
+            if (updated != target) {
+                splice(prefix, updated);
+            }
+            published = null;
+            updates.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code operation}, typically {@link JsonNodeUtils} calls, on a private deep copy of the subtree at
+     * {@code prefix}; the copy is made by the first modification after a snapshot and reused until the next one.
+     */
+    public void modify(JsonPath prefix, Consumer<JsonNode> operation) {
+        update(prefix, target -> {
+            if (copies.contains(target)) {
+                operation.accept(target);
+                return target;
+            }
+            JsonNode copy = target.deepCopy();
+            operation.accept(copy);
+            owned.add(copy);
+            copies.add(copy);
+            return copy;
+        });
+    }
+
+    /** Applies {@code plan} to the subtree at {@code prefix}, copying only the containers it edits. */
+    public void apply(JsonPath prefix, TransformPlan plan) {
+        update(prefix, plan::applyCopyOnWrite);
+    }
+
+    public long updates() {
+        return updates.sum();
+    }
+
+    /** Snapshots that published a changed working tree, i.e. epochs in which the spine was copied again. */
+    public long snapshots() {
+        return snapshots.sum();
+    }
+
+    private static JsonNode container(JsonNode root, JsonPath prefix) {
+        JsonNode target = resolve(root, prefix);
+        if (target == null || !target.isContainerNode()) {
+            throw new IllegalArgumentException("No object or array at path '" + prefix + "'");
+        }
+        return target;
+    }
+
+    private static JsonNode resolve(JsonNode node, JsonPath path) {
+        for (int i = 0; i < path.size() && node != null; i++) {
+            node = child(node, path.segment(i));
+        }
+        return node;
+    }
+
+    private static JsonNode child(JsonNode node, String segment) {
+        if (node.isArray()) {
+            int index = index(segment);
+            return index < 0 ? null : node.get(index);
+        }
+        return node.get(segment);
+    }
+
+    private static int index(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void splice(JsonPath prefix, JsonNode updated) {
+        if (prefix.size() == 0) {
+            working = updated;
+            return;
+        }
+        JsonNode parent = own(prefix);
+        String segment = prefix.lastSegment();
+        if (parent instanceof ArrayNode) {
+            ((ArrayNode) parent).set(index(segment), updated);
+        } else {
+            ((ObjectNode) parent).set(segment, updated);
+        }
+    }
+
+    /** Makes the containers from the root down to the parent of {@code prefix} editable, returning that parent. */
+    private JsonNode own(JsonPath prefix) {
+        if (!owned.contains(working)) {
+            working = StructuralCopy.shallowCopy(working);
+            owned.add(working);
+        }
+        // The new subtree may share nodes with a snapshot, so nothing above it may be edited wholesale anymore.
+        copies.remove(working);
+        JsonNode node = working;
+        for (int i = 0; i < prefix.size() - 1; i++) {
+            String segment = prefix.segment(i);
+            JsonNode child = child(node, segment);
+            if (!owned.contains(child)) {
+                child = StructuralCopy.shallowCopy(child);
+                owned.add(child);
+                if (node instanceof ArrayNode) {
+                    ((ArrayNode) node).set(index(segment), child);
+                } else {
+                    ((ObjectNode) node).set(segment, child);
+                }
+            }
+            copies.remove(child);
+            node = child;
+        }
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConcurrentDocumentStore[updates=%d, snapshots=%d]", updates(), snapshots());
+    }
+}
@@ -0,0 +1,180 @@
+package org.example;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Memoizing wrapper for the functions passed to {@link JsonNodeUtils#convertFieldByPath}, keyed by the
+ * content of the source array. Lookups use the list the function receives as-is; only misses copy it into
+ * a key. Least recently used entries are evicted once either {@code maxEntries} or {@code maxWeight}
+ * (total characters of keys and values) is exceeded. One instance can be shared across documents and
+ * threads; on a concurrent miss for the same key the function may run more than once.
+ * <p>
+ * Large caches are split into up to {@value #MAX_SEGMENTS} independently locked segments, each with an equal
+ * share of the limits, so fork/join workers converting different keys rarely wait for each other. Eviction is
+ * then least recently used per segment rather than across the whole cache.
+ */
+public final class ConversionCache implements Function<List<String>, String> {
+
+    static final int MAX_SEGMENTS = 16;
+
+    /** A segment smaller than this would evict too far from the global LRU order to be worth splitting. */
+    private static final int MIN_SEGMENT_ENTRIES = 64;
+
+    private final Function<List<String>, String> function;
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ConversionCache(Function<List<String>, String> function, int maxEntries) {
+        this(function, maxEntries, Long.MAX_VALUE);
+    }
+
+    public ConversionCache(Function<List<String>, String> function, int maxEntries, long maxWeight) {
+        if (function == null) {
+            throw new IllegalArgumentException("function must not be null");
+        }
+        if (maxEntries < 1 || maxWeight < 1) {
+            throw new IllegalArgumentException("maxEntries and maxWeight must be positive");
+        }
+        this.function = function;
+        int count = 1;
+        while (count < MAX_SEGMENTS && maxEntries / (count * 2) >= MIN_SEGMENT_ENTRIES) {
+            count *= 2;
+        }
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment((maxEntries + count - 1) / count,
+                    maxWeight == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(1, maxWeight / count));
+        }
+    }
+
+    @Override
+    public String apply(List<String> values) {
+        Segment segment = segmentFor(values);
+        String cached = segment.get(values);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        String result = function.apply(values);
+        if (result != null) {
+            segment.put(List.copyOf(values), result);
+        }
+        return result;
+    }
+
+    private Segment segmentFor(List<String> values) {
+        int hash = values.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    static long weigh(List<String> key, String value) {
+        long result = value.length();
+        for (String element : key) {
+            result += element.length();
+        }
+        return result;
+    }
+
+    int segmentCount() {
+        return segments.length;
+    }
+
+    public int size() {
+        int result = 0;
+        for (Segment segment : segments) {
+            result += segment.size();
+        }
+        return result;
+    }
+
+    public long weight() {
+        long result = 0;
+        for (Segment segment : segments) {
+            result += segment.weight();
+        }
+        return result;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConversionCache[size=%d, weight=%d, hits=%d, misses=%d, evictions=%d]",
+                size(), weight(), hits(), misses(), evictions());
+    }
+
+    private final class Segment {
+
+        private final int maxEntries;
+        private final long maxWeight;
+        private final LinkedHashMap<List<String>, String> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+        private long weight;
+
+        Segment(int maxEntries, long maxWeight) {
+            this.maxEntries = maxEntries;
+            this.maxWeight = maxWeight;
+        }
+
+        synchronized String get(List<String> key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(List<String> key, String value) {
+            String previous = entries.put(key, value);
+            weight += weigh(key, value) - (previous == null ? 0 : weigh(key, previous));
+            Iterator<Map.Entry<List<String>, String>> eldest = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+                Map.Entry<List<String>, String> entry = eldest.next();
+                weight -= weigh(entry.getKey(), entry.getValue());
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            weight = 0;
+        }
+    }
+}
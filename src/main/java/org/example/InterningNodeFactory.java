@@ -0,0 +1,120 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NumericNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link JsonNodeFactory} that hands out shared leaf nodes: short strings go through a bounded intern table
+ * and ints in {@code [-128, 1023]} come from a fixed array. Text and int nodes are immutable, so sharing them
+ * between documents is safe. Field names need no help here, since Jackson already canonicalizes them per
+ * {@code JsonFactory}. Install it with {@link #newObjectMapper()} or {@code ObjectMapper.setNodeFactory};
+ * containers built by that mapper keep using it for values set through {@link JsonNodeUtils} as well.
+ */
+public final class InterningNodeFactory extends JsonNodeFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MIN_CACHED_INT = -128;
+    private static final int MAX_CACHED_INT = 1023;
+
+    /** Object header plus value field, with compressed oops. */
+    static final int LEAF_NODE_BYTES = 16;
+
+    private final int maxEntries;
+    private final int maxStringLength;
+    private final Map<String, TextNode> texts = new ConcurrentHashMap<>();
+    private final IntNode[] ints = new IntNode[MAX_CACHED_INT - MIN_CACHED_INT + 1];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    public InterningNodeFactory() {
+        this(65536, 64);
+    }
+
+    public InterningNodeFactory(int maxEntries, int maxStringLength) {
+        if (maxEntries < 0 || maxStringLength < 0) {
+            throw new IllegalArgumentException("maxEntries and maxStringLength must not be negative");
+        }
+        this.maxEntries = maxEntries;
+        this.maxStringLength = maxStringLength;
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = IntNode.valueOf(MIN_CACHED_INT + i);
+        }
+    }
+
+    /** A mapper whose parsed trees use this factory. */
+    public ObjectMapper newObjectMapper() {
+        return new ObjectMapper().setNodeFactory(this);
+    }
+
+    @Override
+    public TextNode textNode(String text) {
+        if (text == null || text.isEmpty() || text.length() > maxStringLength) {
+            return super.textNode(text);
+        }
+        TextNode node = texts.get(text);
+        if (node != null) {
+            hits.increment();
+            bytesSaved.add(LEAF_NODE_BYTES + stringBytes(text));
+            return node;
+        }
+        misses.increment();
+        node = super.textNode(text);
+        if (texts.size() < maxEntries) {
+            TextNode raced = texts.putIfAbsent(text, node);
+            if (raced != null) {
+                return raced;
+            }
+        }
+        return node;
+    }
+
+    @Override
+    public NumericNode numberNode(int v) {
+        if (v < MIN_CACHED_INT || v > MAX_CACHED_INT) {
+            return super.numberNode(v);
+        }
+        hits.increment();
+        if (v < -1 || v > 10) {
+            // IntNode.valueOf already shares -1..10
+            bytesSaved.add(LEAF_NODE_BYTES);
+        }
+        return ints[v - MIN_CACHED_INT];
+    }
+
+    /** Shallow size of a compact (Latin-1) {@code String} and its backing array, rounded to 8 bytes. */
+    static long stringBytes(String text) {
+        return 24 + ((16 + text.length() + 7) & ~7L);
+    }
+
+    public int size() {
+        return texts.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Estimated heap not allocated (or no longer retained) because a shared node was returned instead. */
+    public long bytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InterningNodeFactory[strings=%d, hits=%d, misses=%d, bytesSaved=%d]",
+                size(), hits(), misses(), bytesSaved());
+    }
+}
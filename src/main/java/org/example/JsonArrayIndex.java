@@ -0,0 +1,218 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hash index from the text value of a key field to the positions of the elements holding it in an
+ * {@link ArrayNode}. Every hit is verified against the array before it is returned, and the index rebuilds
+ * itself when the array grew or shrank or an indexed slot no longer holds its key, so a lookup never returns
+ * the wrong element. A miss costs a hash lookup and a size compare, not a scan: after edits made behind the
+ * index's back that keep the size, such as a remove and an insert, a key that moved in may be reported missing
+ * until a stale hit or {@link #rebuild} catches up. When several elements share a key, lookups return the first
+ * one and {@link #join} enriches all of them. Edits made by {@link #add}, {@link #remove}, {@link #join} and
+ * {@link #update} are captured by an open {@link JsonPatchRecorder}.
+ */
+public final class JsonArrayIndex {
+
+    private static final int[] NO_LINKS = new int[0];
+
+    private final ArrayNode arrayNode;
+    private final String keyField;
+    /** First position of each key. */
+    private final Map<String, Integer> positions;
+    /** Next position holding the same key as the one at the index, or -1. */
+    private int[] nextSameKey = NO_LINKS;
+    private int indexedSize;
+
+    private JsonArrayIndex(ArrayNode arrayNode, String keyField) {
+        this.arrayNode = arrayNode;
+        this.keyField = keyField;
+        this.positions = new HashMap<>(Math.max(16, arrayNode.size() * 4 / 3 + 1));
+        rebuild();
+    }
+
+    public static JsonArrayIndex build(JsonNode jsonNode, String[] pathFields, String keyField) {
+        return build(jsonNode, JsonPath.compile(pathFields), keyField);
+    }
+
+    public static JsonArrayIndex build(JsonNode jsonNode, JsonPath path, String keyField) {
+        JsonNode nestedNode = path.resolve(jsonNode);
+        if (!(nestedNode instanceof ArrayNode)) {
+            throw new IllegalArgumentException("No array at path '" + path + "'");
+        }
+        return new JsonArrayIndex((ArrayNode) nestedNode, keyField);
+    }
+
+    public static JsonArrayIndex of(ArrayNode arrayNode, String keyField) {
+        return new JsonArrayIndex(arrayNode, keyField);
+    }
+
+    public ArrayNode getArrayNode() {
+        return arrayNode;
+    }
+
+    public String getKeyField() {
+        return keyField;
+    }
+
+    /** The number of distinct keys; like the lookups, it notices the array growing or shrinking. */
+    public int size() {
+        refresh();
+        return positions.size();
+    }
+
+    public boolean contains(String key) {
+        return positionOf(key) >= 0;
+    }
+
+    public ObjectNode get(String key) {
+        int position = positionOf(key);
+        return position < 0 ? null : (ObjectNode) arrayNode.get(position);
+    }
+
+    public int positionOf(String key) {
+        return find(key);
+    }
+
+    public boolean update(String key, Consumer<ObjectNode> update) {
+        ObjectNode element = get(key);
+        if (element == null) {
+            return false;
+        }
+        ObjectNode before = JsonPatchRecorder.isRecording() ? element.deepCopy() : null;
+        update.accept(element);
+        if (before != null) {
+            JsonPatchRecorder.recordChanges(element, before);
+        }
+        String newKey = keyOf(element);
+        if (!key.equals(newKey)) {
+            rebuild();
+        }
+        return true;
+    }
+
+    public ObjectNode add(ObjectNode element) {
+        refresh();
+        JsonNodeUtils.addElement(arrayNode, element);
+        int position = arrayNode.size() - 1;
+        ensureLinks(position + 1);
+        nextSameKey[position] = -1;
+        String key = keyOf(element);
+        if (key != null) {
+            Integer first = positions.putIfAbsent(key, position);
+            if (first != null) {
+                int last = first;
+                while (nextSameKey[last] >= 0) {
+                    last = nextSameKey[last];
+                }
+                nextSameKey[last] = position;
+            }
+        }
+        indexedSize = arrayNode.size();
+        return element;
+    }
+
+    public ObjectNode remove(String key) {
+        int position = positionOf(key);
+        if (position < 0) {
+            return null;
+        }
+        ObjectNode removed = (ObjectNode) JsonNodeUtils.removeElement(arrayNode, position);
+        // Every later element shifted left by one, so relinking costs no more than adjusting the positions.
+        rebuild();
+        return removed;
+    }
+
+    /**
+     * Sets {@code fieldName} on every element whose key is in {@code values}, like
+     * {@link JsonNodeUtils#addFieldToArrayFieldByPathAndFieldName(JsonNode, JsonPath, String, String, Map)} does
+     * for the whole array, and returns how many elements were set.
+     */
+    public int join(Map<String, Boolean> values, String fieldName) {
+        int matched = 0;
+        List<Integer> matches = new ArrayList<>();
+        for (String key : values.keySet()) {
+            if (!collect(key, matches)) {
+                rebuild();
+                collect(key, matches);
+            }
+            for (int position : matches) {
+                JsonNodeUtils.addFieldToArrayElement(arrayNode.get(position), fieldName, keyField, values);
+                matched++;
+            }
+            matches.clear();
+        }
+        if (fieldName.equals(keyField)) {
+            rebuild();
+        }
+        return matched;
+    }
+
+    public void rebuild() {
+        positions.clear();
+        int size = arrayNode.size();
+        ensureLinks(size);
+        // Walk backwards so each key ends up mapped to its first position, linked forward to the later ones.
+        for (int position = size - 1; position >= 0; position--) {
+            String key = keyOf(arrayNode.get(position));
+            Integer following = key == null ? null : positions.put(key, position);
+            nextSameKey[position] = following == null ? -1 : following;
+        }
+        indexedSize = size;
+    }
+
+    private void refresh() {
+        if (indexedSize != arrayNode.size()) {
+            rebuild();
+        }
+    }
+
+    private int find(String key) {
+        refresh();
+        Integer position = positions.get(key);
+        if (position == null || isAt(key, position)) {
+            return position == null ? -1 : position;
+        }
+        // The slot was reshuffled behind our back; one rebuild settles where the key lives now.
+        rebuild();
+        position = positions.get(key);
+        return position == null ? -1 : position;
+    }
+
+    /** Adds every position of {@code key} to {@code matches}; {@code false} if a link turned out to be stale. */
+    private boolean collect(String key, List<Integer> matches) {
+        matches.clear();
+        for (int position = find(key); position >= 0; position = nextSameKey[position]) {
+            if (!isAt(key, position)) {
+                matches.clear();
+                return false;
+            }
+            matches.add(position);
+        }
+        return true;
+    }
+
+    private void ensureLinks(int size) {
+        if (nextSameKey.length < size) {
+            nextSameKey = Arrays.copyOf(nextSameKey, Math.max(size, nextSameKey.length * 2));
+        }
+    }
+
+    private boolean isAt(String key, int position) {
+        return position < arrayNode.size() && key.equals(keyOf(arrayNode.get(position)));
+    }
+
+    private String keyOf(JsonNode element) {
+        JsonNode keyNode = element.get(keyField);
+        return keyNode == null ? null : keyNode.asText();
+    }
+}
@@ -0,0 +1,109 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Byte-oriented entry points for the path operations. Input is parsed straight from UTF-8 bytes and output is
+ * generated straight into an {@link OutputStream}, so no intermediate {@code String} copies are made. The
+ * {@code ...ToBuffer} variants write into a per-thread {@link ByteBufferOutputStream} that is reused across
+ * calls; the returned view is only valid until the same thread calls one of them again.
+ */
+@UtilityClass
+public class JsonBytes {
+
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    private static final ThreadLocal<ByteBufferOutputStream> BUFFERS = ThreadLocal.withInitial(ByteBufferOutputStream::new);
+
+    public static JsonNode read(byte[] bytes) throws IOException {
+        return read(bytes, 0, bytes.length);
+    }
+
+    public static JsonNode read(byte[] bytes, int offset, int length) throws IOException {
+        return JsonMappers.getObjectMapper().readTree(bytes, offset, length);
+    }
+
+    public static JsonNode read(ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            return read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return read(new ByteBufferBackedInputStream(buffer.duplicate()));
+    }
+
+    /** Reads one document from {@code in}; the stream is left open, as {@link #write} leaves its target open. */
+    public static JsonNode read(InputStream in) throws IOException {
+        ObjectMapper mapper = JsonMappers.getObjectMapper();
+        try (JsonParser parser = mapper.getFactory().createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            JsonNode jsonNode = mapper.readTree(parser);
+            return jsonNode == null ? MissingNode.getInstance() : jsonNode;
+        }
+    }
+
+    public static void write(JsonNode jsonNode, OutputStream out) throws IOException {
+        ObjectMapper mapper = JsonMappers.getObjectMapper();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            mapper.writeTree(generator, jsonNode);
+        }
+    }
+
+    public static ByteBuffer writeToBuffer(JsonNode jsonNode) throws IOException {
+        ByteBufferOutputStream buffer = acquireBuffer();
+        write(jsonNode, buffer);
+        return buffer.toByteBuffer();
+    }
+
+    public static void transform(byte[] in, Consumer<JsonNode> operations, OutputStream out) throws IOException {
+        JsonNode jsonNode = read(in);
+        operations.accept(jsonNode);
+        write(jsonNode, out);
+    }
+
+    public static void transform(ByteBuffer in, Consumer<JsonNode> operations, OutputStream out) throws IOException {
+        JsonNode jsonNode = read(in);
+        operations.accept(jsonNode);
+        write(jsonNode, out);
+    }
+
+    public static void transform(InputStream in, Consumer<JsonNode> operations, OutputStream out) throws IOException {
+        JsonNode jsonNode = read(in);
+        operations.accept(jsonNode);
+        write(jsonNode, out);
+    }
+
+    public static ByteBuffer transformToBuffer(byte[] in, Consumer<JsonNode> operations) throws IOException {
+        JsonNode jsonNode = read(in);
+        operations.accept(jsonNode);
+        return writeToBuffer(jsonNode);
+    }
+
+    public static ByteBuffer transformToBuffer(ByteBuffer in, Consumer<JsonNode> operations) throws IOException {
+        JsonNode jsonNode = read(in);
+        operations.accept(jsonNode);
+        return writeToBuffer(jsonNode);
+    }
+
+    static ByteBufferOutputStream acquireBuffer() {
+        ByteBufferOutputStream buffer = BUFFERS.get();
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            // Do not pin the memory of one oversized document to the thread forever.
+            buffer = new ByteBufferOutputStream();
+            BUFFERS.set(buffer);
+        }
+        buffer.reset();
+        return buffer;
+    }
+}
@@ -0,0 +1,55 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Holds the shared {@link ObjectMapper} and {@link JsonNodeFactory} used whenever this library needs to parse,
+ * serialize or create nodes. Both are thread-safe once configured; callers that need their own configuration
+ * can inject a mapper at startup instead of paying for mapper construction per call. The Smile mapper backs
+ * {@link SmileBytes}; by default it also back-references repeated short string values, which policy documents
+ * have plenty of.
+ */
+@UtilityClass
+public class JsonMappers {
+
+    private static volatile ObjectMapper objectMapper = new ObjectMapper();
+
+    private static volatile ObjectMapper smileMapper = new ObjectMapper(SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build());
+
+    public static ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    public static void setObjectMapper(ObjectMapper mapper) {
+        if (mapper == null) {
+            throw new IllegalArgumentException("mapper must not be null");
+        }
+        objectMapper = mapper;
+    }
+
+    public static ObjectMapper getSmileMapper() {
+        return smileMapper;
+    }
+
+    public static void setSmileMapper(ObjectMapper mapper) {
+        if (mapper == null || !(mapper.getFactory() instanceof SmileFactory)) {
+            throw new IllegalArgumentException("mapper must be backed by a SmileFactory");
+        }
+        smileMapper = mapper;
+    }
+
+    public static JsonNodeFactory getNodeFactory() {
+        return objectMapper.getNodeFactory();
+    }
+
+    public static ObjectNode emptyObjectNode() {
+        return objectMapper.getNodeFactory().objectNode();
+    }
+}
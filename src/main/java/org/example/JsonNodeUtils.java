@@ -3,7 +3,6 @@ package org.example;
 //package com.att.sane.portal.common.utils;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.SerializerProvider;
@@ -11,10 +10,11 @@ import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import static java.util.Collections.emptyList;
 
@@ -22,37 +22,68 @@ import static java.util.Collections.emptyList;
 
 public class JsonNodeUtils {
 
+    private static volatile JsonNodeUtilsListener listener;
+
+    public static void setListener(JsonNodeUtilsListener newListener) {
+        listener = newListener;
+    }
+
+    public static JsonNodeUtilsListener getListener() {
+        return listener;
+    }
+
     public static void addAStringFieldRootLevel(JsonNode jsonNode, String key, String value) {
-        ((ObjectNode) jsonNode).put(key, value);
+        long start = startTiming();
+        set(jsonNode, key, value);
+        record("addAStringFieldRootLevel", JsonPath.ROOT, start, null, 1);
     }
 
     public static void addAStringFieldRootLevel(JsonNode jsonNode, String key, int value) {
-        ((ObjectNode) jsonNode).put(key, value);
+        long start = startTiming();
+        set(jsonNode, key, value);
+        record("addAStringFieldRootLevel", JsonPath.ROOT, start, null, 1);
     }
 
     public static void addABooleanFieldRootLevel(JsonNode jsonNode, String key, boolean value) {
-        ((ObjectNode) jsonNode).put(key, value);
+        long start = startTiming();
+        set(jsonNode, key, value);
+        record("addABooleanFieldRootLevel", JsonPath.ROOT, start, null, 1);
     }
 
     public static void removeAFieldRootLevel(JsonNode jsonNode, String key) {
-
-        ((ObjectNode) jsonNode).remove(key);
+        long start = startTiming();
+        JsonNode removed = remove(jsonNode, key);
+        record("removeAFieldRootLevel", JsonPath.ROOT, start, null, removed == null ? 0 : 1);
     }
 
     public static String getStringFieldValueByPath(JsonNode jsonNode, String[] pathFields) {
-        JsonNode nestedNode = jsonNode;
-        for (String field : pathFields) {
-            nestedNode = nestedNode.get(field);
-        }
-        return nestedNode.textValue();
+        long start = startTiming();
+        String value = resolve(jsonNode, pathFields).textValue();
+        record("getStringFieldValueByPath", pathFields, start, null, 0);
+        return value;
+    }
+
+    public static String getStringFieldValueByPath(JsonNode jsonNode, JsonPath path) {
+        long start = startTiming();
+        String value = path.resolve(jsonNode).textValue();
+        record("getStringFieldValueByPath", path, start, null, 0);
+        return value;
     }
 
     public static List<String> getSListFieldValueByPath(JsonNode jsonNode, String[] pathFields) {
-        JsonNode nestedNode = jsonNode;
-        for (String field : pathFields) {
-            nestedNode = nestedNode.get(field);
-        }
-        return nestedNode == null ? emptyList() : convertToList((ArrayNode) nestedNode);
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        List<String> values = nestedNode == null ? emptyList() : convertToList((ArrayNode) nestedNode);
+        record("getSListFieldValueByPath", pathFields, start, nestedNode, 0);
+        return values;
+    }
+
+    public static List<String> getSListFieldValueByPath(JsonNode jsonNode, JsonPath path) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        List<String> values = nestedNode == null ? emptyList() : convertToList((ArrayNode) nestedNode);
+        record("getSListFieldValueByPath", path, start, nestedNode, 0);
+        return values;
     }
 
     private static List<String> convertToList(ArrayNode values) {
@@ -61,59 +92,272 @@ public class JsonNodeUtils {
         return result;
     }
 
-    public static void addAFieldByPath(JsonNode jsonNode, String[] pathFields, String key, String value) {
-        JsonNode nestedNode = jsonNode;
-        for (String field : pathFields) {
-            nestedNode = nestedNode.get(field);
+    /** Like {@link #getSListFieldValueByPath} but returns a read-only view of the array instead of a copy. */
+    public static List<String> getSListFieldViewByPath(JsonNode jsonNode, String[] pathFields) {
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        record("getSListFieldViewByPath", pathFields, start, null, 0);
+        return nestedNode == null ? emptyList() : new JsonTextListView((ArrayNode) nestedNode);
+    }
+
+    public static List<String> getSListFieldViewByPath(JsonNode jsonNode, JsonPath path) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        record("getSListFieldViewByPath", path, start, null, 0);
+        return nestedNode == null ? emptyList() : new JsonTextListView((ArrayNode) nestedNode);
+    }
+
+    /**
+     * Elements as {@link JsonNode#asInt()}, streamed lazily from the array; empty when the path is missing. Only
+     * resolving the path is timed, since the stream is consumed after the call returns.
+     */
+    public static IntStream getIntStreamByPath(JsonNode jsonNode, String[] pathFields) {
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        record("getIntStreamByPath", pathFields, start, null, 0);
+        return getIntStream(nestedNode);
+    }
+
+    public static IntStream getIntStreamByPath(JsonNode jsonNode, JsonPath path) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        record("getIntStreamByPath", path, start, null, 0);
+        return getIntStream(nestedNode);
+    }
+
+    private static IntStream getIntStream(JsonNode nestedNode) {
+        if (nestedNode == null) {
+            return IntStream.empty();
+        }
+        ArrayNode arrayNode = (ArrayNode) nestedNode;
+        return IntStream.range(0, arrayNode.size()).map(i -> arrayNode.get(i).asInt());
+    }
+
+    public static int[] getIntArrayByPath(JsonNode jsonNode, String[] pathFields) {
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        int[] values = getIntArray(nestedNode);
+        record("getIntArrayByPath", pathFields, start, nestedNode, 0);
+        return values;
+    }
+
+    public static int[] getIntArrayByPath(JsonNode jsonNode, JsonPath path) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        int[] values = getIntArray(nestedNode);
+        record("getIntArrayByPath", path, start, nestedNode, 0);
+        return values;
+    }
+
+    private static int[] getIntArray(JsonNode nestedNode) {
+        if (nestedNode == null) {
+            return new int[0];
+        }
+        int[] result = new int[nestedNode.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((ArrayNode) nestedNode).get(i).asInt();
+        }
+        return result;
+    }
+
+    public static long[] getLongArrayByPath(JsonNode jsonNode, String[] pathFields) {
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        long[] values = getLongArray(nestedNode);
+        record("getLongArrayByPath", pathFields, start, nestedNode, 0);
+        return values;
+    }
+
+    public static long[] getLongArrayByPath(JsonNode jsonNode, JsonPath path) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        long[] values = getLongArray(nestedNode);
+        record("getLongArrayByPath", path, start, nestedNode, 0);
+        return values;
+    }
+
+    private static long[] getLongArray(JsonNode nestedNode) {
+        if (nestedNode == null) {
+            return new long[0];
+        }
+        long[] result = new long[nestedNode.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((ArrayNode) nestedNode).get(i).asLong();
+        }
+        return result;
+    }
+
+    public static boolean[] getBooleanArrayByPath(JsonNode jsonNode, String[] pathFields) {
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        boolean[] values = getBooleanArray(nestedNode);
+        record("getBooleanArrayByPath", pathFields, start, nestedNode, 0);
+        return values;
+    }
+
+    public static boolean[] getBooleanArrayByPath(JsonNode jsonNode, JsonPath path) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        boolean[] values = getBooleanArray(nestedNode);
+        record("getBooleanArrayByPath", path, start, nestedNode, 0);
+        return values;
+    }
+
+    private static boolean[] getBooleanArray(JsonNode nestedNode) {
+        if (nestedNode == null) {
+            return new boolean[0];
+        }
+        boolean[] result = new boolean[nestedNode.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((ArrayNode) nestedNode).get(i).asBoolean();
         }
+        return result;
+    }
 
+    public static void addAFieldByPath(JsonNode jsonNode, String[] pathFields, String key, String value) {
+        long start = startTiming();
+        int modified = addAField(resolve(jsonNode, pathFields), key, value);
+        record("addAFieldByPath", pathFields, start, null, modified);
+    }
+
+    public static void addAFieldByPath(JsonNode jsonNode, JsonPath path, String key, String value) {
+        long start = startTiming();
+        int modified = addAField(path.resolve(jsonNode), key, value);
+        record("addAFieldByPath", path, start, null, modified);
+    }
+
+    static int addAField(JsonNode nestedNode, String key, String value) {
         if(nestedNode != null) {
-            ((ObjectNode) nestedNode).put(key, value);
+            set(nestedNode, key, value);
+            return 1;
         }
+        return 0;
     }
 
     public static void removeFieldOfListByPathAndName(JsonNode jsonNode, String[] pathFields, String fieldName) {
-        JsonNode nestedNode = jsonNode;
-        for (String field : pathFields) {
-            nestedNode = nestedNode.get(field);
-        }
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        int modified = removeFieldOfList(nestedNode, fieldName);
+        record("removeFieldOfListByPathAndName", pathFields, start, nestedNode, modified);
+    }
 
+    public static void removeFieldOfListByPathAndName(JsonNode jsonNode, JsonPath path, String fieldName) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        int modified = removeFieldOfList(nestedNode, fieldName);
+        record("removeFieldOfListByPathAndName", path, start, nestedNode, modified);
+    }
+
+    private static int removeFieldOfList(JsonNode nestedNode, String fieldName) {
+        int modified = 0;
         if(nestedNode != null) {
             for(JsonNode node : nestedNode) {
-                ((ObjectNode) node).remove(fieldName);
+                if (removeFieldOfListElement(node, fieldName)) {
+                    modified++;
+                }
             }
         }
+        return modified;
+    }
+
+    static boolean removeFieldOfListElement(JsonNode node, String fieldName) {
+        return remove(node, fieldName) != null;
+    }
+
+    /** Whether {@link #removeFieldOfListElement} would change (or reject) {@code node}; reads only. */
+    static boolean removeFieldOfListElementApplies(JsonNode node, String fieldName) {
+        return !node.isObject() || node.has(fieldName);
     }
 
     public static void removeFieldByPathAndName(JsonNode jsonNode, String[] pathFields, String fieldName) {
-        JsonNode nestedNode = jsonNode;
-        for (String field : pathFields) {
-            nestedNode = nestedNode.get(field);
-        }
+        long start = startTiming();
+        int modified = removeField(resolve(jsonNode, pathFields), fieldName);
+        record("removeFieldByPathAndName", pathFields, start, null, modified);
+    }
+
+    public static void removeFieldByPathAndName(JsonNode jsonNode, JsonPath path, String fieldName) {
+        long start = startTiming();
+        int modified = removeField(path.resolve(jsonNode), fieldName);
+        record("removeFieldByPathAndName", path, start, null, modified);
+    }
 
+    static int removeField(JsonNode nestedNode, String fieldName) {
         if(nestedNode != null) {
-            ((ObjectNode) nestedNode).remove(fieldName);
+            return remove(nestedNode, fieldName) == null ? 0 : 1;
         }
+        return 0;
     }
 
     public static void removeAFieldByPathFieldsAndNameFieldTwoIsLIstAndFieldToBeRemovedIsFarOneLayer(JsonNode jsonNode, String[] pathFields, String fieldName) {
+        long start = startTiming();
         JsonNode nestedNode = jsonNode.get(pathFields[0]).get(pathFields[1]);
+        JsonNode arrayNode = nestedNode;
+        int modified = 0;
 
-        for (JsonNode node : nestedNode) {
+        for (JsonNode node : arrayNode) {
             nestedNode = node.get(pathFields[2]);
-            ((ObjectNode) nestedNode).remove(fieldName);
+            if (remove(nestedNode, fieldName) != null) {
+                modified++;
+            }
+        }
+        record("removeAFieldByPathFieldsAndNameFieldTwoIsLIstAndFieldToBeRemovedIsFarOneLayer", pathFields, start, arrayNode, modified);
+    }
+
+    public static void removeAFieldByPathFieldsAndNameFieldTwoIsLIstAndFieldToBeRemovedIsFarOneLayer(JsonNode jsonNode, JsonPath path, String fieldName) {
+        long start = startTiming();
+        JsonNode nestedNode = jsonNode.get(path.segment(0)).get(path.segment(1));
+        String farField = path.segment(2);
+        int modified = 0;
+
+        for (JsonNode node : nestedNode) {
+            if (remove(node.get(farField), fieldName) != null) {
+                modified++;
+            }
         }
+        record("removeAFieldByPathFieldsAndNameFieldTwoIsLIstAndFieldToBeRemovedIsFarOneLayer", path, start, nestedNode, modified);
     }
 
     public static void removeAFieldByPathFieldsAndNameFieldTwoIsLIst(JsonNode jsonNode, String[] pathFields, String fieldName) {
+        long start = startTiming();
         JsonNode nestedNode = jsonNode.get(pathFields[0]).get(pathFields[1]);
+        int modified = 0;
 
         for (JsonNode node : nestedNode) {
-            ((ObjectNode) node).remove(fieldName);
+            if (remove(node, fieldName) != null) {
+                modified++;
+            }
         }
+        record("removeAFieldByPathFieldsAndNameFieldTwoIsLIst", pathFields, start, nestedNode, modified);
+    }
+
+    public static void removeAFieldByPathFieldsAndNameFieldTwoIsLIst(JsonNode jsonNode, JsonPath path, String fieldName) {
+        long start = startTiming();
+        JsonNode nestedNode = jsonNode.get(path.segment(0)).get(path.segment(1));
+        int modified = 0;
+
+        for (JsonNode node : nestedNode) {
+            if (remove(node, fieldName) != null) {
+                modified++;
+            }
+        }
+        record("removeAFieldByPathFieldsAndNameFieldTwoIsLIst", path, start, nestedNode, modified);
+    }
+
+    /** Removes {@code fieldName} from every object the expression selects, e.g. {@code policy.rules[*].spec}. */
+    public static void removeFieldByExpression(JsonNode jsonNode, JsonPathExpression expression, String fieldName) {
+        long start = startTiming();
+        int[] modified = new int[1];
+        expression.forEach(jsonNode, node -> {
+            // a wildcard over a mixed array also selects strings, numbers and arrays, which have no fields
+            if (node.isObject() && remove(node, fieldName) != null) {
+                modified[0]++;
+            }
+        });
+        record("removeFieldByExpression", expression.asList(), start, null, modified[0]);
     }
 
     public static void convertFieldByPath(JsonNode jsonNode, String[] pathFields, Function<List<String>, String> func) {
+        long start = startTiming();
         JsonNode nestedNode = jsonNode;
         var pathFieldsArrayLength = pathFields.length;
 
@@ -121,115 +365,518 @@ public class JsonNodeUtils {
             nestedNode = nestedNode.get(pathFields[i]);
         }
 
+        int modified = convertField(nestedNode, pathFields[pathFieldsArrayLength - 1], func, false);
+        record("convertFieldByPath", pathFields, start, nestedNode, modified);
+    }
+
+    public static void convertFieldByPath(JsonNode jsonNode, JsonPath path, Function<List<String>, String> func) {
+        long start = startTiming();
+        JsonNode nestedNode = path.parent().resolve(jsonNode);
+        int modified = convertField(nestedNode, path.lastSegment(), func, false);
+        record("convertFieldByPath", path, start, nestedNode, modified);
+    }
+
+    /**
+     * Like {@link #convertFieldByPath} but hands {@code func} a read-only {@link JsonTextListView} of each array
+     * instead of a copy. The function must not modify the list or keep it after returning.
+     */
+    public static void convertFieldByPathView(JsonNode jsonNode, String[] pathFields, Function<List<String>, String> func) {
+        long start = startTiming();
+        JsonNode nestedNode = jsonNode;
+        for (int i = 0; i < pathFields.length - 1; i++) {
+            nestedNode = nestedNode.get(pathFields[i]);
+        }
+        int modified = convertField(nestedNode, pathFields[pathFields.length - 1], func, true);
+        record("convertFieldByPathView", pathFields, start, nestedNode, modified);
+    }
+
+    public static void convertFieldByPathView(JsonNode jsonNode, JsonPath path, Function<List<String>, String> func) {
+        long start = startTiming();
+        JsonNode nestedNode = path.parent().resolve(jsonNode);
+        int modified = convertField(nestedNode, path.lastSegment(), func, true);
+        record("convertFieldByPathView", path, start, nestedNode, modified);
+    }
+
+    private static int convertField(JsonNode nestedNode, String fieldName, Function<List<String>, String> func, boolean view) {
+        int modified = 0;
         if(nestedNode != null) {
             for(JsonNode node : nestedNode) {
-                List<String> oldValue = convertToList((ArrayNode)node.get(pathFields[pathFieldsArrayLength - 1]));
-                ((ObjectNode) node).put(pathFields[pathFieldsArrayLength - 1], func.apply(oldValue));
+                if (view) {
+                    convertFieldElementView(node, fieldName, func);
+                } else {
+                    convertFieldElement(node, fieldName, func);
+                }
+                modified++;
             }
         }
+        return modified;
     }
 
-    public static JsonNode getJsonNodeByJsonNodeAndPath(JsonNode jsonNode, String[] pathFieldsPolicyRulesDst) {
-        JsonNode nestedNode = jsonNode;
+    static boolean convertFieldElement(JsonNode node, String fieldName, Function<List<String>, String> func) {
+        List<String> oldValue = convertToList((ArrayNode) node.get(fieldName));
+        set(node, fieldName, func.apply(oldValue));
+        return true;
+    }
 
-        for (String field : pathFieldsPolicyRulesDst) {
-            nestedNode = nestedNode.get(field);
-        }
+    static boolean convertFieldElementView(JsonNode node, String fieldName, Function<List<String>, String> func) {
+        List<String> oldValue = new JsonTextListView((ArrayNode) node.get(fieldName));
+        set(node, fieldName, func.apply(oldValue));
+        return true;
+    }
 
+    public static JsonNode getJsonNodeByJsonNodeAndPath(JsonNode jsonNode, String[] pathFieldsPolicyRulesDst) {
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFieldsPolicyRulesDst);
+        record("getJsonNodeByJsonNodeAndPath", pathFieldsPolicyRulesDst, start, null, 0);
+        return nestedNode;
+    }
+
+    public static JsonNode getJsonNodeByJsonNodeAndPath(JsonNode jsonNode, JsonPath path) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        record("getJsonNodeByJsonNodeAndPath", path, start, null, 0);
         return nestedNode;
     }
 
     public static void addPositionByPath(JsonNode jsonNode, String[] pathFields, String fieldName) {
-        JsonNode nestedNode = jsonNode;
-        for (String field : pathFields) {
-            nestedNode = nestedNode.get(field);
-        }
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        int modified = addPosition(nestedNode, fieldName);
+        record("addPositionByPath", pathFields, start, nestedNode, modified);
+    }
+
+    public static void addPositionByPath(JsonNode jsonNode, JsonPath path, String fieldName) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        int modified = addPosition(nestedNode, fieldName);
+        record("addPositionByPath", path, start, nestedNode, modified);
+    }
 
+    private static int addPosition(JsonNode nestedNode, String fieldName) {
         int counter = 0;
 
         for(JsonNode node : nestedNode) {
-            ((ObjectNode) node).put(fieldName, counter);
+            addPositionElement(node, fieldName, counter);
             counter++;
         }
+        return counter;
+    }
+
+    static boolean addPositionElement(JsonNode node, String fieldName, int position) {
+        set(node, fieldName, position);
+        return true;
     }
 
     public static void addFieldToArrayFieldByPathAndFieldName(JsonNode jsonNode, String[] pathFields, String fieldName, String objectName, Map<String, Boolean> rulesToReadOnlyValues) {
-        JsonNode nestedNode = jsonNode;
-        for (String field : pathFields) {
-            nestedNode = nestedNode.get(field);
-        }
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        int modified = addFieldToArrayField(nestedNode, fieldName, objectName, rulesToReadOnlyValues);
+        record("addFieldToArrayFieldByPathAndFieldName", pathFields, start, nestedNode, modified);
+    }
+
+    public static void addFieldToArrayFieldByPathAndFieldName(JsonNode jsonNode, JsonPath path, String fieldName, String objectName, Map<String, Boolean> rulesToReadOnlyValues) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        int modified = addFieldToArrayField(nestedNode, fieldName, objectName, rulesToReadOnlyValues);
+        record("addFieldToArrayFieldByPathAndFieldName", path, start, nestedNode, modified);
+    }
 
+    private static int addFieldToArrayField(JsonNode nestedNode, String fieldName, String objectName, Map<String, Boolean> rulesToReadOnlyValues) {
+        int modified = 0;
         for(JsonNode node : nestedNode) {
-            ((ObjectNode) node).put(fieldName, rulesToReadOnlyValues.get(node.get(objectName).asText()));
+            addFieldToArrayElement(node, fieldName, objectName, rulesToReadOnlyValues);
+            modified++;
         }
+        return modified;
+    }
+
+    static boolean addFieldToArrayElement(JsonNode node, String fieldName, String objectName, Map<String, Boolean> rulesToReadOnlyValues) {
+        set(node, fieldName, rulesToReadOnlyValues.get(node.get(objectName).asText()));
+        return true;
     }
 
     public static void addFieldToArrayFieldByPathAndFieldName(JsonNode jsonNode, String[] pathFields, String fieldName, boolean fieldValue) {
-        JsonNode nestedNode = jsonNode;
-        for (String field : pathFields) {
-            nestedNode = nestedNode.get(field);
-        }
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        int modified = addFieldToArrayField(nestedNode, fieldName, fieldValue);
+        record("addFieldToArrayFieldByPathAndFieldName", pathFields, start, nestedNode, modified);
+    }
 
+    public static void addFieldToArrayFieldByPathAndFieldName(JsonNode jsonNode, JsonPath path, String fieldName, boolean fieldValue) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        int modified = addFieldToArrayField(nestedNode, fieldName, fieldValue);
+        record("addFieldToArrayFieldByPathAndFieldName", path, start, nestedNode, modified);
+    }
+
+    private static int addFieldToArrayField(JsonNode nestedNode, String fieldName, boolean fieldValue) {
+        int modified = 0;
         for(JsonNode node : nestedNode) {
-            ((ObjectNode) node).put(fieldName, fieldValue);
+            addFieldToArrayElement(node, fieldName, fieldValue);
+            modified++;
         }
+        return modified;
+    }
+
+    static boolean addFieldToArrayElement(JsonNode node, String fieldName, boolean fieldValue) {
+        set(node, fieldName, fieldValue);
+        return true;
     }
 
     public static void addFieldToArrayFieldByPathAndFieldName(JsonNode jsonNode, String[] pathFields, String fieldName, String fieldValue) {
-        JsonNode nestedNode = jsonNode;
-        for (String field : pathFields) {
-            nestedNode = nestedNode.get(field);
-        }
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        int modified = addFieldToArrayField(nestedNode, fieldName, fieldValue);
+        record("addFieldToArrayFieldByPathAndFieldName", pathFields, start, nestedNode, modified);
+    }
 
+    public static void addFieldToArrayFieldByPathAndFieldName(JsonNode jsonNode, JsonPath path, String fieldName, String fieldValue) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        int modified = addFieldToArrayField(nestedNode, fieldName, fieldValue);
+        record("addFieldToArrayFieldByPathAndFieldName", path, start, nestedNode, modified);
+    }
+
+    private static int addFieldToArrayField(JsonNode nestedNode, String fieldName, String fieldValue) {
+        int modified = 0;
         for(JsonNode node : nestedNode) {
-            ((ObjectNode) node).put(fieldName, fieldValue);
+            addFieldToArrayElement(node, fieldName, fieldValue);
+            modified++;
         }
+        return modified;
+    }
+
+    static boolean addFieldToArrayElement(JsonNode node, String fieldName, String fieldValue) {
+        set(node, fieldName, fieldValue);
+        return true;
     }
 
     public static void convertEmptyStringFieldToEmptyMap(String[] pathFields, JsonNode jsonNode, String fieldName1, String fieldName2) {
-        JsonNode nestedNode = jsonNode;
-        for (String field : pathFields) {
-            nestedNode = nestedNode.get(field);
-        }
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        int modified = convertEmptyStringFieldToEmptyMap(nestedNode, fieldName1, fieldName2);
+        record("convertEmptyStringFieldToEmptyMap", pathFields, start, nestedNode, modified);
+    }
 
+    public static void convertEmptyStringFieldToEmptyMap(JsonPath path, JsonNode jsonNode, String fieldName1, String fieldName2) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        int modified = convertEmptyStringFieldToEmptyMap(nestedNode, fieldName1, fieldName2);
+        record("convertEmptyStringFieldToEmptyMap", path, start, nestedNode, modified);
+    }
+
+    private static int convertEmptyStringFieldToEmptyMap(JsonNode nestedNode, String fieldName1, String fieldName2) {
+        int modified = 0;
         for(JsonNode node : nestedNode) {
-            JsonNode profilesNode = node.get(fieldName1).get(fieldName2);
-            if(profilesNode.asText().isEmpty()) {
-                ((ObjectNode) node).replace(fieldName1, new ObjectMapper().valueToTree(new HashMap<>()));
+            if (convertEmptyStringFieldToEmptyMapElement(node, fieldName1, fieldName2)) {
+                modified++;
             }
+        }
+        return modified;
+    }
 
+    static boolean convertEmptyStringFieldToEmptyMapElement(JsonNode node, String fieldName1, String fieldName2) {
+        if(convertEmptyStringFieldToEmptyMapElementApplies(node, fieldName1, fieldName2)) {
+            set(node, fieldName1, JsonMappers.emptyObjectNode());
+            return true;
         }
+        return false;
+    }
+
+    static boolean convertEmptyStringFieldToEmptyMapElementApplies(JsonNode node, String fieldName1, String fieldName2) {
+        JsonNode profilesNode = node.get(fieldName1).get(fieldName2);
+        return profilesNode.asText().isEmpty();
     }
 
     public static void cleanFieldOfTwoEmptyFields(JsonNode jsonNode, String[] pathFields, String fieldOfTwo, String nestedFirst, String nestedSecond) {
-        JsonNode nestedNode = jsonNode;
-        for (String field : pathFields) {
-            nestedNode = nestedNode.get(field);
-        }
+        long start = startTiming();
+        JsonNode nestedNode = resolve(jsonNode, pathFields);
+        int modified = cleanFieldOfTwoEmptyFields(nestedNode, fieldOfTwo, nestedFirst, nestedSecond);
+        record("cleanFieldOfTwoEmptyFields", pathFields, start, nestedNode, modified);
+    }
+
+    public static void cleanFieldOfTwoEmptyFields(JsonNode jsonNode, JsonPath path, String fieldOfTwo, String nestedFirst, String nestedSecond) {
+        long start = startTiming();
+        JsonNode nestedNode = path.resolve(jsonNode);
+        int modified = cleanFieldOfTwoEmptyFields(nestedNode, fieldOfTwo, nestedFirst, nestedSecond);
+        record("cleanFieldOfTwoEmptyFields", path, start, nestedNode, modified);
+    }
 
+    private static int cleanFieldOfTwoEmptyFields(JsonNode nestedNode, String fieldOfTwo, String nestedFirst, String nestedSecond) {
+        int modified = 0;
         for(JsonNode node : nestedNode) {
-            JsonNode nodeOfTwo = node.get(fieldOfTwo);
-            if(nodeOfTwo.get(nestedFirst).isEmpty() && nodeOfTwo.get(nestedSecond).isEmpty()) {
-                ((ObjectNode) node).remove(fieldOfTwo);
+            if (cleanFieldOfTwoEmptyFieldsElement(node, fieldOfTwo, nestedFirst, nestedSecond)) {
+                modified++;
             }
         }
+        return modified;
+    }
+
+    static boolean cleanFieldOfTwoEmptyFieldsElement(JsonNode node, String fieldOfTwo, String nestedFirst, String nestedSecond) {
+        if(cleanFieldOfTwoEmptyFieldsElementApplies(node, fieldOfTwo, nestedFirst, nestedSecond)) {
+            remove(node, fieldOfTwo);
+            return true;
+        }
+        return false;
+    }
+
+    static boolean cleanFieldOfTwoEmptyFieldsElementApplies(JsonNode node, String fieldOfTwo, String nestedFirst, String nestedSecond) {
+        JsonNode nodeOfTwo = node.get(fieldOfTwo);
+        return nodeOfTwo.get(nestedFirst).isEmpty() && nodeOfTwo.get(nestedSecond).isEmpty();
     }
 
     public static void cleanArrayFieldIfArrayIsEmpty(JsonNode jsonNode, String[] pathFields, String[] pathFields2, String fieldName) {
-        JsonNode nestedNode1 = jsonNode;
-        for (String field : pathFields) {
-            nestedNode1 = nestedNode1.get(field);
+        long start = startTiming();
+        JsonNode nestedNode1 = resolve(jsonNode, pathFields);
+        int modified = 0;
+
+        for (JsonNode node : nestedNode1) {
+            if (cleanArrayFieldIfArrayIsEmptyElement(node, pathFields2, fieldName)) {
+                modified++;
+            }
         }
+        record("cleanArrayFieldIfArrayIsEmpty", pathFields, start, nestedNode1, modified);
+    }
+
+    public static void cleanArrayFieldIfArrayIsEmpty(JsonNode jsonNode, JsonPath path, JsonPath path2, String fieldName) {
+        long start = startTiming();
+        JsonNode nestedNode1 = path.resolve(jsonNode);
+        int modified = 0;
 
         for (JsonNode node : nestedNode1) {
-            JsonNode nestedNode2 = node;
-            for (String field : pathFields2) {
-                nestedNode2 = nestedNode2.get(field);
+            if (cleanArrayFieldIfArrayIsEmptyElement(node, path2.segments(), fieldName)) {
+                modified++;
             }
+        }
+        record("cleanArrayFieldIfArrayIsEmpty", path, start, nestedNode1, modified);
+    }
+
+    static boolean cleanArrayFieldIfArrayIsEmptyElement(JsonNode node, String[] pathFields2, String fieldName) {
+        JsonNode nestedNode2 = resolve(node, pathFields2);
+
+        if (nestedNode2.get(fieldName).isEmpty()) {
+            remove(nestedNode2, fieldName);
+            return true;
+        }
+        return false;
+    }
 
-            if (nestedNode2.get(fieldName).isEmpty()) {
-                ((ObjectNode) nestedNode2).remove(fieldName);
+    static boolean cleanArrayFieldIfArrayIsEmptyElementApplies(JsonNode node, String[] pathFields2, String fieldName) {
+        return resolve(node, pathFields2).get(fieldName).isEmpty();
+    }
+
+    public static PathResult tryResolve(JsonNode jsonNode, String[] pathFields) {
+        long start = startTiming();
+        PathResult result = resolveResult(jsonNode, pathFields);
+        record("tryResolve", pathFields, start, null, 0);
+        return result;
+    }
+
+    public static PathResult tryResolve(JsonNode jsonNode, JsonPath path) {
+        return tryResolve(jsonNode, path.segments());
+    }
+
+    /**
+     * Unlike {@link #getStringFieldValueByPath}, which returns {@code null} for a node that is not text, this
+     * reports {@link PathResult.Status#WRONG_TYPE} with the node, so a number can be told apart from a missing field.
+     */
+    public static PathResult tryGetStringFieldValueByPath(JsonNode jsonNode, String[] pathFields) {
+        long start = startTiming();
+        PathResult result = resolveResult(jsonNode, pathFields);
+        if (result.isOk() && !result.getNode().isTextual()) {
+            result = PathResult.wrongType(result.getNode(), pathFields.length - 1, -1);
+        }
+        record("tryGetStringFieldValueByPath", pathFields, start, null, 0);
+        return result;
+    }
+
+    public static PathResult tryGetStringFieldValueByPath(JsonNode jsonNode, JsonPath path) {
+        return tryGetStringFieldValueByPath(jsonNode, path.segments());
+    }
+
+    public static PathResult tryAddPositionByPath(JsonNode jsonNode, String[] pathFields, String fieldName) {
+        long start = startTiming();
+        PathResult result = resolveArrayResult(jsonNode, pathFields);
+        JsonNode nestedNode = result.isOk() ? result.getNode() : null;
+        int counter = 0;
+        if (nestedNode != null) {
+            for (JsonNode node : nestedNode) {
+                if (!node.isObject()) {
+                    result = PathResult.wrongType(node, pathFields.length - 1, counter);
+                    break;
+                }
+                addPositionElement(node, fieldName, counter);
+                counter++;
+            }
+        }
+        record("tryAddPositionByPath", pathFields, start, nestedNode, counter);
+        return result;
+    }
+
+    public static PathResult tryAddPositionByPath(JsonNode jsonNode, JsonPath path, String fieldName) {
+        return tryAddPositionByPath(jsonNode, path.segments(), fieldName);
+    }
+
+    public static PathResult tryConvertEmptyStringFieldToEmptyMap(String[] pathFields, JsonNode jsonNode, String fieldName1, String fieldName2) {
+        long start = startTiming();
+        PathResult result = resolveArrayResult(jsonNode, pathFields);
+        JsonNode nestedNode = result.isOk() ? result.getNode() : null;
+        int modified = 0;
+        if (nestedNode != null) {
+            int index = 0;
+            for (JsonNode node : nestedNode) {
+                JsonNode field1 = node.get(fieldName1);
+                if (field1 == null || field1.get(fieldName2) == null) {
+                    result = PathResult.missing(field1 == null ? pathFields.length : pathFields.length + 1, index);
+                    break;
+                }
+                if (convertEmptyStringFieldToEmptyMapElement(node, fieldName1, fieldName2)) {
+                    modified++;
+                }
+                index++;
+            }
+        }
+        record("tryConvertEmptyStringFieldToEmptyMap", pathFields, start, nestedNode, modified);
+        return result;
+    }
+
+    public static PathResult tryConvertEmptyStringFieldToEmptyMap(JsonPath path, JsonNode jsonNode, String fieldName1, String fieldName2) {
+        return tryConvertEmptyStringFieldToEmptyMap(path.segments(), jsonNode, fieldName1, fieldName2);
+    }
+
+    public static PathResult tryCleanArrayFieldIfArrayIsEmpty(JsonNode jsonNode, String[] pathFields, String[] pathFields2, String fieldName) {
+        long start = startTiming();
+        PathResult result = resolveArrayResult(jsonNode, pathFields);
+        JsonNode nestedNode1 = result.isOk() ? result.getNode() : null;
+        int modified = 0;
+        if (nestedNode1 != null) {
+            int index = 0;
+            for (JsonNode node : nestedNode1) {
+                PathResult element = resolveResult(node, pathFields2);
+                if (!element.isOk() || element.getNode().get(fieldName) == null) {
+                    int segment = element.isOk() ? pathFields2.length : element.getFailingSegment();
+                    result = PathResult.missing(pathFields.length + segment, index);
+                    break;
+                }
+                JsonNode nestedNode2 = element.getNode();
+                if (nestedNode2.get(fieldName).isEmpty()) {
+                    remove(nestedNode2, fieldName);
+                    modified++;
+                }
+                index++;
+            }
+        }
+        record("tryCleanArrayFieldIfArrayIsEmpty", pathFields, start, nestedNode1, modified);
+        return result;
+    }
+
+    public static PathResult tryCleanArrayFieldIfArrayIsEmpty(JsonNode jsonNode, JsonPath path, JsonPath path2, String fieldName) {
+        return tryCleanArrayFieldIfArrayIsEmpty(jsonNode, path.segments(), path2.segments(), fieldName);
+    }
+
+    private static PathResult resolveResult(JsonNode jsonNode, String[] pathFields) {
+        JsonNode nestedNode = jsonNode;
+        for (int i = 0; i < pathFields.length; i++) {
+            nestedNode = nestedNode.get(pathFields[i]);
+            if (nestedNode == null) {
+                return PathResult.missing(i, -1);
             }
         }
+        if (JsonPatchRecorder.isRecording()) {
+            JsonPatchRecorder.recordPath(jsonNode, pathFields);
+        }
+        return PathResult.ok(nestedNode);
+    }
+
+    private static PathResult resolveArrayResult(JsonNode jsonNode, String[] pathFields) {
+        PathResult result = resolveResult(jsonNode, pathFields);
+        if (result.isOk() && !result.getNode().isArray()) {
+            return PathResult.wrongType(result.getNode(), pathFields.length - 1, -1);
+        }
+        return result;
+    }
+
+    private static JsonNode resolve(JsonNode jsonNode, String[] pathFields) {
+        JsonNode nestedNode = jsonNode;
+        for (String field : pathFields) {
+            nestedNode = nestedNode.get(field);
+        }
+        if (JsonPatchRecorder.isRecording()) {
+            JsonPatchRecorder.recordPath(jsonNode, pathFields);
+        }
+        return nestedNode;
+    }
+
+    private static void set(JsonNode node, String fieldName, String value) {
+        ObjectNode objectNode = (ObjectNode) node;
+        set(objectNode, fieldName, value == null ? objectNode.nullNode() : objectNode.textNode(value));
+    }
+
+    private static void set(JsonNode node, String fieldName, int value) {
+        ObjectNode objectNode = (ObjectNode) node;
+        set(objectNode, fieldName, objectNode.numberNode(value));
+    }
+
+    private static void set(JsonNode node, String fieldName, Boolean value) {
+        ObjectNode objectNode = (ObjectNode) node;
+        set(objectNode, fieldName, value == null ? objectNode.nullNode() : objectNode.booleanNode(value));
+    }
+
+    private static void set(JsonNode node, String fieldName, JsonNode value) {
+        JsonNode previous = ((ObjectNode) node).replace(fieldName, value);
+        if (JsonPatchRecorder.isRecording()) {
+            JsonPatchRecorder.recordSet(node, fieldName, previous, value);
+        }
+    }
+
+    /** Appends {@code element} to {@code arrayNode} where an open {@link JsonPatchRecorder} sees it. */
+    static void addElement(ArrayNode arrayNode, JsonNode element) {
+        arrayNode.add(element);
+        if (JsonPatchRecorder.isRecording()) {
+            JsonPatchRecorder.recordAddElement(arrayNode, arrayNode.size() - 1, element);
+        }
+    }
+
+    /** Removes the element at {@code index} where an open {@link JsonPatchRecorder} sees it. */
+    static JsonNode removeElement(ArrayNode arrayNode, int index) {
+        JsonNode removed = arrayNode.remove(index);
+        if (removed != null && JsonPatchRecorder.isRecording()) {
+            JsonPatchRecorder.recordRemoveElement(arrayNode, index);
+        }
+        return removed;
+    }
+
+    private static JsonNode remove(JsonNode node, String fieldName) {
+        JsonNode removed = ((ObjectNode) node).remove(fieldName);
+        if (removed != null && JsonPatchRecorder.isRecording()) {
+            JsonPatchRecorder.recordRemove(node, fieldName);
+        }
+        return removed;
+    }
+
+    static long startTiming() {
+        return listener == null ? 0L : System.nanoTime();
+    }
+
+    static void record(String method, String[] pathFields, long start, JsonNode scanned, int modified) {
+        if (listener != null) {
+            record(method, Arrays.asList(pathFields), start, scanned, modified);
+        }
+    }
+
+    static void record(String method, JsonPath path, long start, JsonNode scanned, int modified) {
+        if (listener != null) {
+            record(method, path.asList(), start, scanned, modified);
+        }
+    }
+
+    /** Hands the path over as a list view, so reporting never compiles or interns a {@link JsonPath}. */
+    private static void record(String method, List<String> path, long start, JsonNode scanned, int modified) {
+        JsonNodeUtilsListener current = listener;
+        if (current != null) {
+            long elapsed = start == 0L ? 0L : System.nanoTime() - start;
+            int visited = path.size() + (scanned == null ? 0 : scanned.size());
+            current.onOperation(method, path, elapsed, visited, modified);
+        }
     }
 }
@@ -0,0 +1,22 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Receives one callback per {@link JsonNodeUtils} call (and per fused traversal of a {@link TransformPlan})
+ * once installed with {@link JsonNodeUtils#setListener}. Callbacks run on the calling thread, so
+ * implementations must be thread-safe and cheap.
+ */
+@FunctionalInterface
+public interface JsonNodeUtilsListener {
+
+    /**
+     * @param method           the {@link JsonNodeUtils} method name, or {@code TransformPlan.apply}
+     * @param path             the segments of the path the operation was given; may be a view of the caller's
+     *                         array, so copy it before keeping it
+     * @param elapsedNanos     wall time spent in the call
+     * @param nodesVisited     path segments walked plus the direct children of the target node that were scanned
+     * @param elementsModified how many nodes the call actually changed
+     */
+    void onOperation(String method, List<String> path, long elapsedNanos, int nodesVisited, int elementsModified);
+}
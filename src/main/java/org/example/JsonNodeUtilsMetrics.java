@@ -0,0 +1,189 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free {@link JsonNodeUtilsListener} that keeps counters and a latency histogram per method and path.
+ * Latencies go into power-of-two buckets, so reported percentiles are the upper bound of the bucket they
+ * fall in (within a factor of two of the true value).
+ */
+public final class JsonNodeUtilsMetrics implements JsonNodeUtilsListener {
+
+    private static final int BUCKETS = 64;
+
+    private final Map<String, Map<List<String>, Stats>> methods = new ConcurrentHashMap<>();
+
+    /** Creates a collector and installs it as the {@link JsonNodeUtils} listener. */
+    public static JsonNodeUtilsMetrics install() {
+        JsonNodeUtilsMetrics metrics = new JsonNodeUtilsMetrics();
+        JsonNodeUtils.setListener(metrics);
+        return metrics;
+    }
+
+    @Override
+    public void onOperation(String method, List<String> path, long elapsedNanos, int nodesVisited, int elementsModified) {
+        Map<List<String>, Stats> paths = methods.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+        Stats stats = paths.get(path);
+        if (stats == null) {
+            // The path may be a view of the caller's array; only the first call per path pays for a copy.
+            stats = paths.computeIfAbsent(List.copyOf(path), p -> new Stats());
+        }
+        stats.record(elapsedNanos, nodesVisited, elementsModified);
+    }
+
+    public List<Snapshot> snapshot() {
+        List<Snapshot> result = new ArrayList<>();
+        methods.forEach((method, paths) -> paths.forEach((path, stats) ->
+                result.add(stats.snapshot(method, JsonPath.compile(path.toArray(new String[0]))))));
+        result.sort(Comparator.comparing(Snapshot::getMethod).thenComparing(snapshot -> snapshot.getPath().toString()));
+        return result;
+    }
+
+    /** One line per method and path, suitable for logs or a plain-text scrape endpoint. */
+    public String dump() {
+        StringBuilder result = new StringBuilder();
+        for (Snapshot snapshot : snapshot()) {
+            result.append(snapshot).append(System.lineSeparator());
+        }
+        return result.toString();
+    }
+
+    public void reset() {
+        methods.clear();
+    }
+
+    private static final class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder nodesVisited = new LongAdder();
+        private final LongAdder elementsModified = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+        Stats() {
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        void record(long elapsedNanos, int visited, int modified) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            nodesVisited.add(visited);
+            elementsModified.add(modified);
+            maxNanos.accumulate(elapsedNanos);
+            histogram[bucket(elapsedNanos)].increment();
+        }
+
+        Snapshot snapshot(String method, JsonPath path) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram[i].sum();
+                total += counts[i];
+            }
+            return new Snapshot(method, path, count.sum(), totalNanos.sum(), maxNanos.get(),
+                    percentile(counts, total, 0.50), percentile(counts, total, 0.90), percentile(counts, total, 0.99),
+                    nodesVisited.sum(), elementsModified.sum());
+        }
+    }
+
+    static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    static long percentile(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == 0 ? 0 : (1L << i) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public static final class Snapshot {
+        private final String method;
+        private final JsonPath path;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long p50Nanos;
+        private final long p90Nanos;
+        private final long p99Nanos;
+        private final long nodesVisited;
+        private final long elementsModified;
+
+        Snapshot(String method, JsonPath path, long count, long totalNanos, long maxNanos, long p50Nanos, long p90Nanos,
+                 long p99Nanos, long nodesVisited, long elementsModified) {
+            this.method = method;
+            this.path = path;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.nodesVisited = nodesVisited;
+            this.elementsModified = elementsModified;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public JsonPath getPath() {
+            return path;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP90Nanos() {
+            return p90Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getNodesVisited() {
+            return nodesVisited;
+        }
+
+        public long getElementsModified() {
+            return elementsModified;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s path=%s count=%d total=%.3fms p50<=%dns p90<=%dns p99<=%dns max=%dns nodes=%d modified=%d",
+                    method, path.size() == 0 ? "<root>" : path, count, totalNanos / 1e6, p50Nanos, p90Nanos, p99Nanos,
+                    maxNanos, nodesVisited, elementsModified);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Captures the edits {@link JsonNodeUtils} makes to one document as an RFC 6902 JSON Patch. Recording is
+ * keyed by the document, not the thread, so edits made by {@link ParallelArrayProcessor} workers are captured
+ * too; elements handled by {@link StreamingTransformer} are not part of a tree and are never recorded.
+ * <pre>
+ * try (JsonPatchRecorder recorder = JsonPatchRecorder.start(jsonNode)) {
+ *     plan.apply(jsonNode);
+ *     ArrayNode patch = recorder.toPatch();
+ * }
+ * </pre>
+ * While no recorder is open, the mutators pay a single volatile read. An open recorder does not walk the
+ * document up front: it learns where containers sit from the paths {@link JsonPath} and {@link JsonNodeUtils}
+ * resolve, and builds a pointer from those parent links only when an edit needs one. Containers reached any
+ * other way are found by walking the document breadth-first, only as far as needed and only on the thread
+ * that started the recorder, since other threads may be editing the parts such a walk would read.
+ */
+public final class JsonPatchRecorder implements AutoCloseable {
+
+    private static final JsonPatchRecorder[] NONE = new JsonPatchRecorder[0];
+
+    private static volatile JsonPatchRecorder[] active = NONE;
+
+    /** Where a container sits: the field or index under its parent; the root has no parent. */
+    private static final class Slot {
+        final JsonNode parent;
+        final String field;
+        final int index;
+
+        Slot(JsonNode parent, String field, int index) {
+            this.parent = parent;
+            this.field = field;
+            this.index = index;
+        }
+
+        /** Whether {@code node} is still there, i.e. it has not been replaced or removed since. */
+        boolean holds(JsonNode node) {
+            return (field != null ? parent.get(field) : parent.get(index)) == node;
+        }
+
+        String segment() {
+            return field != null ? escape(field) : Integer.toString(index);
+        }
+    }
+
+    /** Identity key: {@link JsonNode#equals} compares whole subtrees. */
+    private static final class Key {
+        final JsonNode node;
+
+        Key(JsonNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).node == node;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(node);
+        }
+    }
+
+    private final Map<Key, Slot> slots = new ConcurrentHashMap<>();
+    /** Containers whose children have not been looked at yet, in the order they were found. */
+    private final Queue<JsonNode> unexplored = new ConcurrentLinkedQueue<>();
+    private final Queue<ObjectNode> operations = new ConcurrentLinkedQueue<>();
+    private final Thread owner = Thread.currentThread();
+
+    private JsonPatchRecorder(JsonNode root) {
+        slots.put(new Key(root), new Slot(null, null, -1));
+        unexplored.add(root);
+    }
+
+    public static JsonPatchRecorder start(JsonNode root) {
+        if (root == null) {
+            throw new IllegalArgumentException("root must not be null");
+        }
+        JsonPatchRecorder recorder = new JsonPatchRecorder(root);
+        synchronized (JsonPatchRecorder.class) {
+            JsonPatchRecorder[] recorders = Arrays.copyOf(active, active.length + 1);
+            recorders[recorders.length - 1] = recorder;
+            active = recorders;
+        }
+        return recorder;
+    }
+
+    static boolean isRecording() {
+        return active.length != 0;
+    }
+
+    static void recordSet(JsonNode parent, String fieldName, JsonNode previous, JsonNode value) {
+        for (JsonPatchRecorder recorder : active) {
+            recorder.set(parent, fieldName, previous, value);
+        }
+    }
+
+    static void recordRemove(JsonNode parent, String fieldName) {
+        for (JsonPatchRecorder recorder : active) {
+            recorder.remove(parent, fieldName);
+        }
+    }
+
+    static void recordAddElement(ArrayNode arrayNode, int index, JsonNode element) {
+        for (JsonPatchRecorder recorder : active) {
+            recorder.addElement(arrayNode, index, element);
+        }
+    }
+
+    static void recordRemoveElement(ArrayNode arrayNode, int index) {
+        for (JsonPatchRecorder recorder : active) {
+            recorder.removeElement(arrayNode, index);
+        }
+    }
+
+    /**
+     * Notes where the containers along {@code pathFields} below {@code jsonNode} sit, and the children of the one
+     * it leads to, so edits below them need no search. Only paths starting at a container already known are kept.
+     */
+    static void recordPath(JsonNode jsonNode, String[] pathFields) {
+        for (JsonPatchRecorder recorder : active) {
+            recorder.learnPath(jsonNode, pathFields);
+        }
+    }
+
+    /** Records the field-level difference between {@code before}, a copy taken earlier, and {@code node} now. */
+    static void recordChanges(ObjectNode node, ObjectNode before) {
+        for (Iterator<String> names = before.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            if (!node.has(name)) {
+                recordRemove(node, name);
+            }
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode previous = before.get(field.getKey());
+            if (!field.getValue().equals(previous)) {
+                recordSet(node, field.getKey(), previous, field.getValue());
+            }
+        }
+    }
+
+    /** Returns the operations recorded so far, in the order they were applied. */
+    public ArrayNode toPatch() {
+        ArrayNode patch = JsonMappers.getNodeFactory().arrayNode();
+        patch.addAll(operations);
+        return patch;
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    /** Containers whose place in the document is known so far. */
+    int knownContainers() {
+        return slots.size();
+    }
+
+    @Override
+    public void close() {
+        synchronized (JsonPatchRecorder.class) {
+            List<JsonPatchRecorder> recorders = new ArrayList<>(Arrays.asList(active));
+            recorders.remove(this);
+            active = recorders.isEmpty() ? NONE : recorders.toArray(NONE);
+        }
+    }
+
+    private void set(JsonNode parent, String fieldName, JsonNode previous, JsonNode value) {
+        String parentPointer = locate(parent);
+        if (parentPointer == null) {
+            return;
+        }
+        ObjectNode operation = operation(previous == null ? "add" : "replace", parentPointer + "/" + escape(fieldName));
+        operation.set("value", value.isContainerNode() ? value.deepCopy() : value);
+        operations.add(operation);
+        learn(parent, fieldName, -1, value);
+    }
+
+    private void remove(JsonNode parent, String fieldName) {
+        String parentPointer = locate(parent);
+        if (parentPointer != null) {
+            operations.add(operation("remove", parentPointer + "/" + escape(fieldName)));
+        }
+    }
+
+    private void addElement(ArrayNode arrayNode, int index, JsonNode element) {
+        String arrayPointer = locate(arrayNode);
+        if (arrayPointer == null) {
+            return;
+        }
+        ObjectNode operation = operation("add", arrayPointer + "/" + index);
+        operation.set("value", element.isContainerNode() ? element.deepCopy() : element);
+        operations.add(operation);
+        shifted(arrayNode, index);
+    }
+
+    private void removeElement(ArrayNode arrayNode, int index) {
+        String arrayPointer = locate(arrayNode);
+        if (arrayPointer != null) {
+            operations.add(operation("remove", arrayPointer + "/" + index));
+            shifted(arrayNode, index);
+        }
+    }
+
+    /** Moves the slots of the elements from {@code index} on, which an insert or remove just shifted. */
+    private void shifted(ArrayNode arrayNode, int index) {
+        for (int i = index; i < arrayNode.size(); i++) {
+            learn(arrayNode, null, i, arrayNode.get(i));
+        }
+    }
+
+    private static ObjectNode operation(String op, String pointer) {
+        ObjectNode operation = JsonMappers.getNodeFactory().objectNode();
+        operation.put("op", op);
+        operation.put("path", pointer);
+        return operation;
+    }
+
+    /** The pointer of {@code node}, or {@code null} when it is not (or no longer) part of the document. */
+    private String locate(JsonNode node) {
+        String pointer = pointer(node);
+        if (pointer == null && Thread.currentThread() == owner && explore(node)) {
+            pointer = pointer(node);
+        }
+        return pointer;
+    }
+
+    private String pointer(JsonNode node) {
+        Slot slot = slots.get(new Key(node));
+        if (slot == null) {
+            return null;
+        }
+        if (slot.parent == null) {
+            return "";
+        }
+        if (!slot.holds(node)) {
+            return null;
+        }
+        String parentPointer = pointer(slot.parent);
+        return parentPointer == null ? null : parentPointer + "/" + slot.segment();
+    }
+
+    /** Looks at the children of unexplored containers, breadth-first, until {@code target} turns up. */
+    private boolean explore(JsonNode target) {
+        for (JsonNode container = unexplored.poll(); container != null; container = unexplored.poll()) {
+            if (learnChildren(container, target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void learnPath(JsonNode jsonNode, String[] pathFields) {
+        if (!slots.containsKey(new Key(jsonNode))) {
+            return;
+        }
+        JsonNode node = jsonNode;
+        for (String field : pathFields) {
+            JsonNode child = node.get(field);
+            if (child == null || !child.isContainerNode()) {
+                return;
+            }
+            learn(node, field, -1, child);
+            node = child;
+        }
+        learnChildren(node, null);
+    }
+
+    /** Learns the container children of {@code node}, returning whether {@code target} is one of them. */
+    private boolean learnChildren(JsonNode node, JsonNode target) {
+        boolean found = false;
+        if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                JsonNode child = node.get(i);
+                learn(node, null, i, child);
+                found |= child == target;
+            }
+        } else if (node.isObject()) {
+            for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                learn(node, field.getKey(), -1, field.getValue());
+                found |= field.getValue() == target;
+            }
+        }
+        return found;
+    }
+
+    private void learn(JsonNode parent, String field, int index, JsonNode child) {
+        if (child.isContainerNode() && slots.put(new Key(child), new Slot(parent, field, index)) == null) {
+            unexplored.add(child);
+        }
+    }
+
+    static String escape(String segment) {
+        if (segment.indexOf('~') < 0 && segment.indexOf('/') < 0) {
+            return segment;
+        }
+        return segment.replace("~", "~0").replace("/", "~1");
+    }
+}
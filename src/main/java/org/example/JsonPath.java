@@ -0,0 +1,144 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A pre-validated, immutable path into a {@link JsonNode} tree. The first {@value #MAX_CACHED_PATHS} distinct
+ * paths are interned, so compiling one of them again returns the same handle without locking or copying;
+ * paths compiled after the cache is full are equal to, but not shared with, later compilations.
+ */
+public final class JsonPath {
+
+    private static final int MAX_CACHED_PATHS = 1024;
+
+    /** Keyed by the paths themselves, which compare by segments, so a lookup can wrap the caller's array. */
+    private static final Map<JsonPath, JsonPath> CACHE = new ConcurrentHashMap<>();
+
+    public static final JsonPath ROOT = new JsonPath(new String[0]);
+
+    private final String[] segments;
+
+    private JsonPath parent;
+
+    private int hash;
+
+    private List<String> list;
+
+    private JsonPath(String[] segments) {
+        this.segments = segments;
+    }
+
+    public static JsonPath compile(String... pathFields) {
+        if (pathFields == null) {
+            throw new IllegalArgumentException("pathFields must not be null");
+        }
+        if (pathFields.length == 0) {
+            return ROOT;
+        }
+        JsonPath cached = CACHE.get(new JsonPath(pathFields));
+        if (cached != null) {
+            return cached;
+        }
+        String[] segments = pathFields.clone();
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i] == null) {
+                throw new IllegalArgumentException("path segment " + i + " is null");
+            }
+        }
+
+        JsonPath path = new JsonPath(segments);
+        if (CACHE.size() >= MAX_CACHED_PATHS) {
+            return path;
+        }
+        JsonPath raced = CACHE.putIfAbsent(path, path);
+        return raced == null ? path : raced;
+    }
+
+    public static JsonPath parse(String dottedPath) {
+        if (dottedPath == null) {
+            throw new IllegalArgumentException("dottedPath must not be null");
+        }
+        return dottedPath.isEmpty() ? ROOT : compile(dottedPath.split("\\."));
+    }
+
+    public JsonNode resolve(JsonNode jsonNode) {
+        JsonNode nestedNode = jsonNode;
+        for (String field : segments) {
+            nestedNode = nestedNode.get(field);
+        }
+        if (JsonPatchRecorder.isRecording()) {
+            JsonPatchRecorder.recordPath(jsonNode, segments);
+        }
+        return nestedNode;
+    }
+
+    public JsonPath parent() {
+        JsonPath result = parent;
+        if (result == null) {
+            result = segments.length <= 1 ? ROOT : compile(Arrays.copyOf(segments, segments.length - 1));
+            parent = result;
+        }
+        return result;
+    }
+
+    public String lastSegment() {
+        return segments.length == 0 ? null : segments[segments.length - 1];
+    }
+
+    public int size() {
+        return segments.length;
+    }
+
+    public String segment(int index) {
+        return segments[index];
+    }
+
+    public String[] toArray() {
+        return segments.clone();
+    }
+
+    /** The backing array, for resolving without a copy; callers must not modify it. */
+    String[] segments() {
+        return segments;
+    }
+
+    /** The segments as an unmodifiable list, built once and shared by later calls. */
+    public List<String> asList() {
+        List<String> result = list;
+        if (result == null) {
+            result = Collections.unmodifiableList(Arrays.asList(segments));
+            list = result;
+        }
+        return result;
+    }
+
+    static int cacheSize() {
+        return CACHE.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof JsonPath && Arrays.equals(segments, ((JsonPath) o).segments));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            result = Arrays.hashCode(segments);
+            hash = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(".", segments);
+    }
+}
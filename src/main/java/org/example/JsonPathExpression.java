@@ -0,0 +1,213 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * A {@link JsonPath} that may fan out: besides field names, a segment can be {@code [*]} (every element of an
+ * array, or every value of an object) or {@code [n]} (one array element). Missing fields and out-of-range
+ * indexes select nothing instead of failing. Like {@link JsonPath}, the first {@value #MAX_CACHED_EXPRESSIONS}
+ * distinct expressions are interned.
+ */
+public final class JsonPathExpression {
+
+    public static final String WILDCARD = "[*]";
+
+    static final int FIELD = -1;
+    static final int ANY = -2;
+
+    private static final int MAX_CACHED_EXPRESSIONS = 1024;
+
+    private static final Map<JsonPathExpression, JsonPathExpression> CACHE = new ConcurrentHashMap<>();
+
+    private final String[] segments;
+    /** {@link #FIELD}, {@link #ANY} or the array index, per segment. */
+    private final int[] selectors;
+
+    private List<String> list;
+
+    private JsonPathExpression(String[] segments, int[] selectors) {
+        this.segments = segments;
+        this.selectors = selectors;
+    }
+
+    public static JsonPathExpression compile(String... segments) {
+        if (segments == null) {
+            throw new IllegalArgumentException("segments must not be null");
+        }
+        JsonPathExpression cached = CACHE.get(new JsonPathExpression(segments, null));
+        if (cached != null) {
+            return cached;
+        }
+        String[] copy = segments.clone();
+        int[] selectors = new int[copy.length];
+        for (int i = 0; i < copy.length; i++) {
+            if (copy[i] == null) {
+                throw new IllegalArgumentException("path segment " + i + " is null");
+            }
+            selectors[i] = selector(copy[i]);
+        }
+
+        JsonPathExpression expression = new JsonPathExpression(copy, selectors);
+        if (CACHE.size() >= MAX_CACHED_EXPRESSIONS) {
+            return expression;
+        }
+        JsonPathExpression raced = CACHE.putIfAbsent(expression, expression);
+        return raced == null ? expression : raced;
+    }
+
+    /** Parses {@code policy.rules[*].spec} style paths; an empty string is the root. */
+    public static JsonPathExpression parse(String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("expression must not be null");
+        }
+        List<String> segments = new ArrayList<>();
+        if (!expression.isEmpty()) {
+            for (String part : expression.split("\\.", -1)) {
+                int bracket = part.indexOf('[');
+                String field = bracket < 0 ? part : part.substring(0, bracket);
+                if (!field.isEmpty() || bracket < 0) {
+                    segments.add(field);
+                }
+                while (bracket >= 0) {
+                    int close = part.indexOf(']', bracket);
+                    if (close < 0) {
+                        throw new IllegalArgumentException("Unclosed '[' in " + expression);
+                    }
+                    segments.add(part.substring(bracket, close + 1));
+                    bracket = close + 1 < part.length() ? close + 1 : -1;
+                    if (bracket >= 0 && part.charAt(bracket) != '[') {
+                        throw new IllegalArgumentException("Unexpected text after ']' in " + expression);
+                    }
+                }
+            }
+        }
+        return compile(segments.toArray(new String[0]));
+    }
+
+    public static JsonPathExpression of(JsonPath path) {
+        return compile(path.toArray());
+    }
+
+    private static int selector(String segment) {
+        if (!segment.startsWith("[") || !segment.endsWith("]")) {
+            return FIELD;
+        }
+        if (segment.equals(WILDCARD)) {
+            return ANY;
+        }
+        try {
+            int index = Integer.parseInt(segment.substring(1, segment.length() - 1));
+            if (index >= 0) {
+                return index;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Expected [*] or [<index>] but got " + segment);
+    }
+
+    /** Calls {@code action} for every node the expression selects, in document order, and returns how many. */
+    public int forEach(JsonNode jsonNode, Consumer<JsonNode> action) {
+        return forEach(jsonNode, 0, action);
+    }
+
+    private int forEach(JsonNode node, int depth, Consumer<JsonNode> action) {
+        if (depth == segments.length) {
+            action.accept(node);
+            return 1;
+        }
+        JsonNode child = step(node, depth);
+        if (child != null) {
+            return forEach(child, depth + 1, action);
+        }
+        if (selectors[depth] != ANY) {
+            return 0;
+        }
+        int count = 0;
+        for (JsonNode element : node) {
+            count += forEach(element, depth + 1, action);
+        }
+        return count;
+    }
+
+    /** Resolves a field or index segment; {@code null} for a wildcard or when nothing matches. */
+    private JsonNode step(JsonNode node, int depth) {
+        int selector = selectors[depth];
+        if (selector == FIELD) {
+            return node.isObject() ? node.get(segments[depth]) : null;
+        }
+        return selector >= 0 && node.isArray() ? node.get(selector) : null;
+    }
+
+    public List<JsonNode> select(JsonNode jsonNode) {
+        List<JsonNode> result = new ArrayList<>();
+        forEach(jsonNode, result::add);
+        return result;
+    }
+
+    /** Whether the expression selects at most one node, i.e. it has no {@code [*]} segment. */
+    public boolean isDefinite() {
+        for (int selector : selectors) {
+            if (selector == ANY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return segments.length;
+    }
+
+    public String segment(int index) {
+        return segments[index];
+    }
+
+    int selector(int index) {
+        return selectors[index];
+    }
+
+    public String[] toArray() {
+        return segments.clone();
+    }
+
+    /** The segments as an unmodifiable list, built once and shared by later calls. */
+    public List<String> asList() {
+        List<String> result = list;
+        if (result == null) {
+            result = Collections.unmodifiableList(Arrays.asList(segments));
+            list = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof JsonPathExpression && Arrays.equals(segments, ((JsonPathExpression) o).segments));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(segments);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0 && selectors[i] == FIELD) {
+                result.append('.');
+            }
+            result.append(segments[i]);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Many {@link JsonPathExpression}s merged into one prefix trie, so {@link #apply(JsonNode)} walks each shared
+ * prefix once however many expressions go through it. At every matched node the actions registered for it
+ * run first, in registration order, and only then does the walk descend, so an action can remove a subtree
+ * that deeper expressions would otherwise have visited.
+ */
+public final class JsonPathTrie {
+
+    private static final class Node {
+        final Map<String, Node> children = new LinkedHashMap<>();
+        final List<Consumer<JsonNode>> actions = new ArrayList<>();
+        int selector;
+    }
+
+    private final Node root;
+    private final int expressionCount;
+
+    private JsonPathTrie(Node root, int expressionCount) {
+        this.root = root;
+        this.expressionCount = expressionCount;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public void apply(JsonNode jsonNode) {
+        visit(root, jsonNode);
+    }
+
+    private static void visit(Node trieNode, JsonNode jsonNode) {
+        for (Consumer<JsonNode> action : trieNode.actions) {
+            action.accept(jsonNode);
+        }
+        for (Map.Entry<String, Node> entry : trieNode.children.entrySet()) {
+            Node child = entry.getValue();
+            int selector = child.selector;
+            if (selector == JsonPathExpression.ANY) {
+                for (JsonNode element : jsonNode) {
+                    visit(child, element);
+                }
+                continue;
+            }
+            JsonNode next = selector == JsonPathExpression.FIELD
+                    ? (jsonNode.isObject() ? jsonNode.get(entry.getKey()) : null)
+                    : (jsonNode.isArray() ? jsonNode.get(selector) : null);
+            if (next != null) {
+                visit(child, next);
+            }
+        }
+    }
+
+    public int expressionCount() {
+        return expressionCount;
+    }
+
+    /** Number of trie nodes below the root, i.e. distinct path steps a single {@link #apply} may take. */
+    public int nodeCount() {
+        return count(root) - 1;
+    }
+
+    private static int count(Node node) {
+        int result = 1;
+        for (Node child : node.children.values()) {
+            result += count(child);
+        }
+        return result;
+    }
+
+    public static final class Builder {
+
+        private final Node root = new Node();
+        private int expressionCount;
+        private boolean built;
+
+        private Builder() {
+        }
+
+        public Builder add(String expression, Consumer<JsonNode> action) {
+            return add(JsonPathExpression.parse(expression), action);
+        }
+
+        public Builder add(JsonPathExpression expression, Consumer<JsonNode> action) {
+            if (built) {
+                throw new IllegalStateException("build() was already called");
+            }
+            Node node = root;
+            for (int i = 0; i < expression.size(); i++) {
+                int selector = expression.selector(i);
+                node = node.children.computeIfAbsent(expression.segment(i), k -> new Node());
+                node.selector = selector;
+            }
+            node.actions.add(action);
+            expressionCount++;
+            return this;
+        }
+
+        public JsonPathTrie build() {
+            built = true;
+            return new JsonPathTrie(root, expressionCount);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@code List<String>} over an {@link ArrayNode}: each read returns {@link JsonNode#asText()} of the
+ * element at that moment, so nothing is copied up front and text elements are returned without allocating.
+ * Changes to the array show through the view.
+ */
+public final class JsonTextListView extends AbstractList<String> implements RandomAccess {
+
+    private final ArrayNode arrayNode;
+
+    public JsonTextListView(ArrayNode arrayNode) {
+        if (arrayNode == null) {
+            throw new IllegalArgumentException("arrayNode must not be null");
+        }
+        this.arrayNode = arrayNode;
+    }
+
+    @Override
+    public String get(int index) {
+        JsonNode element = arrayNode.get(index);
+        if (element == null) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + arrayNode.size());
+        }
+        return element.asText();
+    }
+
+    @Override
+    public int size() {
+        return arrayNode.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        for (JsonNode element : arrayNode) {
+            if (o.equals(element.asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
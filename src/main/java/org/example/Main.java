@@ -1,8 +1,219 @@
 package org.example;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 public class Main {
-    public static void main(String[] args) {
 
-        System.out.println("Hello world!");
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage:",
+            "  batch <inputDir> <outputDir> [--threads N] --op <operation> [--op <operation> ...]",
+            "  ndjson <input|-> <output|-> [--queue N] [--flush-every N] --op <operation> [--op <operation> ...]",
+            "  serve <port> [--max-in-flight-bytes N] [--spec <file>] [--plan <name> --op <operation> ...]",
+            "",
+            "A --spec file holds {\"plans\": {\"<name>\": [{\"op\": \"<operation>\", \"path\": ..., ...}]}} and is",
+            "reloaded while serving whenever it changes.",
+            "",
+            "Operations are written as name:path:arg... with dotted paths (an empty path is the root):",
+            "  removeFieldOfListByPathAndName:<path>:<field>",
+            "  removeFieldByPathAndName:<path>:<field>",
+            "  addAFieldByPath:<path>:<key>:<value>",
+            "  addPositionByPath:<path>:<field>",
+            "  addBooleanFieldToArrayField:<path>:<field>:<true|false>",
+            "  addStringFieldToArrayField:<path>:<field>:<value>",
+            "  convertEmptyStringFieldToEmptyMap:<path>:<field1>:<field2>",
+            "  cleanFieldOfTwoEmptyFields:<path>:<fieldOfTwo>:<nestedFirst>:<nestedSecond>",
+            "  cleanArrayFieldIfArrayIsEmpty:<path>:<path2>:<field>");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        switch (args[0]) {
+            case "batch":
+                batch(args);
+                break;
+            case "ndjson":
+                ndjson(args);
+                break;
+            case "serve":
+                serve(args);
+                break;
+            default:
+                System.err.println(USAGE);
+                System.exit(2);
+        }
+    }
+
+    private static void batch(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        Path inputDir = Path.of(args[1]);
+        Path outputDir = Path.of(args[2]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> operations = new ArrayList<>();
+        for (int i = 3; i < args.length; i++) {
+            if ("--threads".equals(args[i]) && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if ("--op".equals(args[i]) && i + 1 < args.length) {
+                operations.add(args[++i]);
+            } else {
+                System.err.println("Unknown argument: " + args[i]);
+                System.exit(2);
+            }
+        }
+
+        BatchProcessor.Result result = new BatchProcessor(parsePlan(operations), threads).process(inputDir, outputDir);
+        System.out.println(result);
+        result.getErrors().forEach(System.err::println);
+        if (result.getFailures() > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void ndjson(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        int queueCapacity = 1024;
+        int flushEvery = 1024;
+        List<String> operations = new ArrayList<>();
+        for (int i = 3; i < args.length; i++) {
+            if ("--queue".equals(args[i]) && i + 1 < args.length) {
+                queueCapacity = Integer.parseInt(args[++i]);
+            } else if ("--flush-every".equals(args[i]) && i + 1 < args.length) {
+                flushEvery = Integer.parseInt(args[++i]);
+            } else if ("--op".equals(args[i]) && i + 1 < args.length) {
+                operations.add(args[++i]);
+            } else {
+                System.err.println("Unknown argument: " + args[i]);
+                System.exit(2);
+            }
+        }
+
+        NdjsonProcessor processor = new NdjsonProcessor(parsePlan(operations), queueCapacity, flushEvery);
+        NdjsonProcessor.Result result;
+        try (InputStream in = "-".equals(args[1]) ? System.in : Files.newInputStream(Path.of(args[1]));
+             OutputStream out = "-".equals(args[2]) ? System.out : Files.newOutputStream(Path.of(args[2]))) {
+            result = processor.process(in, out);
+        }
+        // The report goes to stderr so that "-" output stays pure NDJSON.
+        System.err.println(result);
+        result.getErrors().forEach(System.err::println);
+        if (result.getFailures() > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void serve(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        int port = Integer.parseInt(args[1]);
+        int maxInFlightBytes = 64 * 1024 * 1024;
+        Map<String, List<String>> plans = new LinkedHashMap<>();
+        List<String> current = null;
+        Path spec = null;
+        for (int i = 2; i < args.length; i++) {
+            if ("--max-in-flight-bytes".equals(args[i]) && i + 1 < args.length) {
+                maxInFlightBytes = Integer.parseInt(args[++i]);
+            } else if ("--spec".equals(args[i]) && i + 1 < args.length) {
+                spec = Path.of(args[++i]);
+            } else if ("--plan".equals(args[i]) && i + 1 < args.length) {
+                current = plans.computeIfAbsent(args[++i], name -> new ArrayList<>());
+            } else if ("--op".equals(args[i]) && i + 1 < args.length && current != null) {
+                current.add(args[++i]);
+            } else {
+                System.err.println("Unknown argument: " + args[i]);
+                System.exit(2);
+            }
+        }
+
+        TransformServer server = new TransformServer(port, maxInFlightBytes);
+        plans.forEach((name, operations) -> server.register(name, parsePlan(operations)));
+        if (spec != null) {
+            TransformRegistry registry = new TransformRegistry(spec);
+            System.out.println(registry.current());
+            server.withRegistry(registry);
+            watchSpec(registry);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+        System.out.println("Serving " + plans.keySet() + " on http://localhost:" + server.getPort() + TransformServer.CONTEXT);
+    }
+
+    private static void watchSpec(TransformRegistry registry) {
+        ScheduledExecutorService watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "spec-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(() -> {
+            try {
+                TransformSpec previous = registry.current();
+                if (registry.reloadIfModified()) {
+                    previous.transforms().values().forEach(System.out::println);
+                    System.out.println("Reloaded " + registry.current());
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Keeping previous spec, reload of " + registry.getPath() + " failed: " + e.getMessage());
+            }
+        }, 2, 2, TimeUnit.SECONDS);
+    }
+
+    static TransformPlan parsePlan(List<String> operations) {
+        TransformPlan.Builder builder = TransformPlan.builder();
+        for (String operation : operations) {
+            String[] parts = operation.split(":", -1);
+            JsonPath path = parts.length > 1 ? JsonPath.parse(parts[1]) : null;
+            switch (parts[0] + "/" + parts.length) {
+                case "removeFieldOfListByPathAndName/3":
+                    builder.removeFieldOfListByPathAndName(path, parts[2]);
+                    break;
+                case "removeFieldByPathAndName/3":
+                    builder.removeFieldByPathAndName(path, parts[2]);
+                    break;
+                case "addAFieldByPath/4":
+                    builder.addAFieldByPath(path, parts[2], parts[3]);
+                    break;
+                case "addPositionByPath/3":
+                    builder.addPositionByPath(path, parts[2]);
+                    break;
+                case "addBooleanFieldToArrayField/4":
+                    builder.addFieldToArrayFieldByPathAndFieldName(path, parts[2], Boolean.parseBoolean(parts[3]));
+                    break;
+                case "addStringFieldToArrayField/4":
+                    builder.addFieldToArrayFieldByPathAndFieldName(path, parts[2], parts[3]);
+                    break;
+                case "convertEmptyStringFieldToEmptyMap/4":
+                    builder.convertEmptyStringFieldToEmptyMap(path, parts[2], parts[3]);
+                    break;
+                case "cleanFieldOfTwoEmptyFields/5":
+                    builder.cleanFieldOfTwoEmptyFields(path, parts[2], parts[3], parts[4]);
+                    break;
+                case "cleanArrayFieldIfArrayIsEmpty/4":
+                    builder.cleanArrayFieldIfArrayIsEmpty(path, JsonPath.parse(parts[2]), parts[3]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown or malformed operation: " + operation);
+            }
+        }
+        return builder.build();
     }
-}
\ No newline at end of file
+}
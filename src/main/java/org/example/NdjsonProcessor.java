@@ -0,0 +1,338 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies a {@link TransformPlan} to newline-delimited JSON. Reading, parsing, transforming and writing each
+ * run on their own thread, connected by bounded queues, so the stages overlap while records keep their input
+ * order. A record that fails to parse or transform is dropped from the output and counted; an I/O error
+ * stops the pipeline and closes the input, so a reader blocked on it (e.g. stdin) is released. The result
+ * reports each stage's throughput over the time it was busy, so the stage with the lowest rate is the
+ * bottleneck; time spent waiting on the input, the output or a queue does not count as busy.
+ */
+public final class NdjsonProcessor {
+
+    private static final int MAX_ERRORS = 100;
+
+    private static final Line END = new Line(-1, null);
+
+    private static final class Line {
+        final long number;
+        final byte[] bytes;
+        JsonNode jsonNode;
+        String error;
+
+        Line(long number, byte[] bytes) {
+            this.number = number;
+            this.bytes = bytes;
+        }
+    }
+
+    public static final class StageStats {
+        private final String name;
+        private final long records;
+        private final long busyNanos;
+
+        StageStats(String name, long records, long busyNanos) {
+            this.name = name;
+            this.records = records;
+            this.busyNanos = busyNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getRecords() {
+            return records;
+        }
+
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+
+        public double recordsPerSecond() {
+            return busyNanos == 0 ? 0 : records * 1e9 / busyNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d records, %.1f ms busy, %.1f records/s",
+                    name, records, busyNanos / 1e6, recordsPerSecond());
+        }
+    }
+
+    public static final class Result {
+        private final long records;
+        private final long failures;
+        private final long elapsedNanos;
+        private final List<StageStats> stages;
+        private final List<String> errors;
+
+        Result(long records, long failures, long elapsedNanos, List<StageStats> stages, List<String> errors) {
+            this.records = records;
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+            this.stages = stages;
+            this.errors = errors;
+        }
+
+        /** Records written. */
+        public long getRecords() {
+            return records;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public List<StageStats> getStages() {
+            return stages;
+        }
+
+        /** The first {@value #MAX_ERRORS} record errors, prefixed with their line number. */
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        public double recordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : records * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder(String.format("%d records (%d failed), %.1f ms, %.1f records/s",
+                    records, failures, elapsedNanos / 1e6, recordsPerSecond()));
+            for (StageStats stage : stages) {
+                result.append(System.lineSeparator()).append("  ").append(stage);
+            }
+            return result.toString();
+        }
+    }
+
+    private final TransformPlan plan;
+    private final int queueCapacity;
+    private final int flushEvery;
+
+    public NdjsonProcessor(TransformPlan plan) {
+        this(plan, 1024, 1024);
+    }
+
+    /**
+     * @param queueCapacity records buffered between two stages
+     * @param flushEvery    records written between flushes of the output
+     */
+    public NdjsonProcessor(TransformPlan plan, int queueCapacity, int flushEvery) {
+        if (queueCapacity < 1 || flushEvery < 1) {
+            throw new IllegalArgumentException("queueCapacity and flushEvery must be positive");
+        }
+        this.plan = plan;
+        this.queueCapacity = queueCapacity;
+        this.flushEvery = flushEvery;
+    }
+
+    public Result process(InputStream in, OutputStream out) throws IOException, InterruptedException {
+        BlockingQueue<Line> read = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Line> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Line> transformed = new ArrayBlockingQueue<>(queueCapacity);
+        long[] counts = new long[4];
+        long[] busy = new long[4];
+        long[] written = new long[2];
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+        // Daemon threads: a reader blocked on an input that cannot be interrupted must not keep the JVM alive.
+        ExecutorService stages = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "ndjson-stage");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorCompletionService<Void> completion = new ExecutorCompletionService<>(stages);
+        long start = System.nanoTime();
+        completion.submit(() -> readLines(in, read, counts, busy));
+        completion.submit(stage(read, parsed, 1, counts, busy, line -> line.jsonNode = JsonBytes.read(line.bytes)));
+        completion.submit(stage(parsed, transformed, 2, counts, busy, line -> plan.apply(line.jsonNode)));
+        completion.submit(() -> writeLines(transformed, out, counts, busy, written, errors));
+
+        Throwable failure = null;
+        try {
+            for (int i = 0; i < 4 && failure == null; i++) {
+                try {
+                    completion.take().get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause();
+                }
+            }
+        } finally {
+            stages.shutdownNow();
+            if (failure != null) {
+                // The reader may be blocked in in.read(), which interrupts do not reach; closing the input does.
+                closeQuietly(in, failure);
+                stages.awaitTermination(1, TimeUnit.SECONDS);
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof InterruptedException) {
+            throw new IOException("NDJSON stage was interrupted", failure);
+        }
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+
+        List<StageStats> stats = List.of(
+                new StageStats("read", counts[0], busy[0]),
+                new StageStats("parse", counts[1], busy[1]),
+                new StageStats("transform", counts[2], busy[2]),
+                new StageStats("write", counts[3], busy[3]));
+        return new Result(written[0], written[1], System.nanoTime() - start, stats, errors);
+    }
+
+    private static void closeQuietly(InputStream in, Throwable failure) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface LineOperation {
+        void apply(Line line) throws IOException;
+    }
+
+    private static Callable<Void> stage(BlockingQueue<Line> from, BlockingQueue<Line> to, int slot,
+                                        long[] counts, long[] busy, LineOperation operation) {
+        return () -> {
+            for (Line line = from.take(); line != END; line = from.take()) {
+                if (line.error == null) {
+                    long started = System.nanoTime();
+                    try {
+                        operation.apply(line);
+                    } catch (IOException | RuntimeException e) {
+                        line.error = e.getMessage();
+                    }
+                    busy[slot] += System.nanoTime() - started;
+                    counts[slot]++;
+                }
+                to.put(line);
+            }
+            to.put(END);
+            return null;
+        };
+    }
+
+    private Void readLines(InputStream in, BlockingQueue<Line> to, long[] counts, long[] busy)
+            throws IOException, InterruptedException {
+        ByteArrayOutputStream current = new ByteArrayOutputStream(256);
+        byte[] buffer = new byte[64 * 1024];
+        long number = 0;
+        // Only splitting counts as busy: blocking in in.read() measures the input, not this stage.
+        for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+            long started = System.nanoTime();
+            int from = 0;
+            for (int i = 0; i < n; i++) {
+                if (buffer[i] == '\n') {
+                    current.write(buffer, from, i - from);
+                    from = i + 1;
+                    number++;
+                    Line line = toLine(number, current);
+                    if (line != null) {
+                        busy[0] += System.nanoTime() - started;
+                        counts[0]++;
+                        to.put(line);
+                        started = System.nanoTime();
+                    }
+                }
+            }
+            current.write(buffer, from, n - from);
+            busy[0] += System.nanoTime() - started;
+        }
+        long started = System.nanoTime();
+        Line last = toLine(number + 1, current);
+        busy[0] += System.nanoTime() - started;
+        if (last != null) {
+            counts[0]++;
+            to.put(last);
+        }
+        to.put(END);
+        return null;
+    }
+
+    /** Takes the buffered line, dropping a trailing {@code \r}; blank lines yield {@code null}. */
+    private static Line toLine(long number, ByteArrayOutputStream current) {
+        byte[] bytes = current.toByteArray();
+        current.reset();
+        int length = bytes.length;
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        boolean blank = true;
+        for (int i = 0; i < length && blank; i++) {
+            blank = Character.isWhitespace(bytes[i]);
+        }
+        if (blank) {
+            return null;
+        }
+        return new Line(number, length == bytes.length ? bytes : Arrays.copyOf(bytes, length));
+    }
+
+    private Void writeLines(BlockingQueue<Line> from, OutputStream out, long[] counts, long[] busy, long[] written,
+                            List<String> errors) throws IOException, InterruptedException {
+        ObjectMapper mapper = JsonMappers.getObjectMapper();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long pending = 0;
+            for (Line line = from.take(); line != END; line = from.take()) {
+                if (line.error != null) {
+                    written[1]++;
+                    if (errors.size() < MAX_ERRORS) {
+                        errors.add("line " + line.number + ": " + line.error);
+                    }
+                    continue;
+                }
+                long started = System.nanoTime();
+                mapper.writeTree(generator, line.jsonNode);
+                generator.writeRaw('\n');
+                if (++pending == flushEvery) {
+                    generator.flush();
+                    pending = 0;
+                }
+                busy[3] += System.nanoTime() - started;
+                counts[3]++;
+                written[0]++;
+            }
+            long started = System.nanoTime();
+            generator.flush();
+            busy[3] += System.nanoTime() - started;
+        }
+        return null;
+    }
+}
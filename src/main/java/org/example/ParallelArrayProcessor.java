@@ -0,0 +1,156 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Opt-in parallel variants of the element-wise {@link JsonNodeUtils} operations. Arrays at or above the
+ * threshold are split across the configured {@link ForkJoinPool}; each element is still edited by exactly one
+ * thread, so results are identical to the sequential methods. Functions and maps passed in must be safe to
+ * call from several threads at once.
+ */
+public final class ParallelArrayProcessor {
+
+    /**
+     * Conservative default. {@code ParallelArrayBenchmark} on one core (avg us/op, sequential vs forked):
+     * addField 12.1 vs 13.9 at 256, 51 vs 46 at 1024, 361 vs 277 at 4096, 1559 vs 1374 at 16384; convertField
+     * 33 vs 42 at 256, 3041 vs 3062 at 4096. Forking only costs below 1024 and is within noise above it, so no
+     * crossover could be measured there; rerun the benchmark on the target hardware before lowering this.
+     */
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    /** 256 elements take about 12 us sequentially (addField above), well above the cost of forking a task. */
+    private static final int MIN_CHUNK_SIZE = 256;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelArrayProcessor() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public ParallelArrayProcessor(ForkJoinPool pool, int threshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool must not be null");
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be positive");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public void addFieldToArrayFieldByPathAndFieldName(JsonNode jsonNode, String[] pathFields, String fieldName, String objectName, Map<String, Boolean> rulesToReadOnlyValues) {
+        addFieldToArrayFieldByPathAndFieldName(jsonNode, JsonPath.compile(pathFields), fieldName, objectName, rulesToReadOnlyValues);
+    }
+
+    public void addFieldToArrayFieldByPathAndFieldName(JsonNode jsonNode, JsonPath path, String fieldName, String objectName, Map<String, Boolean> rulesToReadOnlyValues) {
+        forEachElement(path.resolve(jsonNode), (element, index) -> JsonNodeUtils.addFieldToArrayElement(element, fieldName, objectName, rulesToReadOnlyValues));
+    }
+
+    public void convertFieldByPath(JsonNode jsonNode, String[] pathFields, Function<List<String>, String> func) {
+        convertFieldByPath(jsonNode, JsonPath.compile(pathFields), func);
+    }
+
+    public void convertFieldByPath(JsonNode jsonNode, JsonPath path, Function<List<String>, String> func) {
+        JsonNode nestedNode = path.parent().resolve(jsonNode);
+        String fieldName = path.lastSegment();
+        if (nestedNode != null) {
+            forEachElement(nestedNode, (element, index) -> JsonNodeUtils.convertFieldElement(element, fieldName, func));
+        }
+    }
+
+    public void removeFieldOfListByPathAndName(JsonNode jsonNode, String[] pathFields, String fieldName) {
+        removeFieldOfListByPathAndName(jsonNode, JsonPath.compile(pathFields), fieldName);
+    }
+
+    public void removeFieldOfListByPathAndName(JsonNode jsonNode, JsonPath path, String fieldName) {
+        JsonNode nestedNode = path.resolve(jsonNode);
+        if (nestedNode != null) {
+            forEachElement(nestedNode, (element, index) -> JsonNodeUtils.removeFieldOfListElement(element, fieldName));
+        }
+    }
+
+    public void apply(TransformPlan plan, JsonNode jsonNode) {
+        for (TransformPlan.Group group : plan.groups()) {
+            if (group.objectTarget) {
+                plan.applyGroup(group, jsonNode);
+                continue;
+            }
+            JsonNode arrayNode = group.path.resolve(jsonNode);
+            if (arrayNode == null) {
+                plan.applyGroup(group, jsonNode);
+                continue;
+            }
+            List<TransformPlan.Step> steps = group.steps;
+            int stepCount = steps.size();
+            forEachElement(arrayNode, (element, index) -> {
+                boolean changed = false;
+                for (int i = 0; i < stepCount; i++) {
+                    changed |= steps.get(i).operation.apply(element, index);
+                }
+                return changed;
+            });
+        }
+    }
+
+    void forEachElement(JsonNode arrayNode, TransformPlan.ElementOperation operation) {
+        if (!(arrayNode instanceof ArrayNode) || arrayNode.size() < threshold) {
+            int index = 0;
+            for (JsonNode element : arrayNode) {
+                operation.apply(element, index++);
+            }
+            return;
+        }
+
+        int size = arrayNode.size();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * 4));
+        pool.invoke(new ElementsTask((ArrayNode) arrayNode, operation, 0, size, chunkSize));
+    }
+
+    private static final class ElementsTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ArrayNode arrayNode;
+        private final TransformPlan.ElementOperation operation;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        ElementsTask(ArrayNode arrayNode, TransformPlan.ElementOperation operation, int from, int to, int chunkSize) {
+            this.arrayNode = arrayNode;
+            this.operation = operation;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    operation.apply(arrayNode.get(i), i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ElementsTask(arrayNode, operation, from, middle, chunkSize),
+                    new ElementsTask(arrayNode, operation, middle, to, chunkSize));
+        }
+    }
+}
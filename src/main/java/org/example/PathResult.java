@@ -0,0 +1,82 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Outcome of one of the {@code try*} methods in {@link JsonNodeUtils}, which report a missing or mistyped node
+ * instead of throwing. Segment indexes count the method's path first and continue with the segments looked up
+ * below each array element, so for {@code cleanArrayFieldIfArrayIsEmpty(policy.rules, spec, ports)} index 3
+ * is {@code ports}.
+ */
+public final class PathResult {
+
+    public enum Status {
+        OK,
+        /** A segment resolved to nothing. */
+        MISSING,
+        /** A node exists but is not the kind of node the operation needs. */
+        WRONG_TYPE
+    }
+
+    private static final PathResult OK_WITHOUT_NODE = new PathResult(Status.OK, null, -1, -1);
+
+    private final Status status;
+    private final JsonNode node;
+    private final int failingSegment;
+    private final int elementIndex;
+
+    private PathResult(Status status, JsonNode node, int failingSegment, int elementIndex) {
+        this.status = status;
+        this.node = node;
+        this.failingSegment = failingSegment;
+        this.elementIndex = elementIndex;
+    }
+
+    static PathResult ok(JsonNode node) {
+        return node == null ? OK_WITHOUT_NODE : new PathResult(Status.OK, node, -1, -1);
+    }
+
+    static PathResult missing(int failingSegment, int elementIndex) {
+        return new PathResult(Status.MISSING, null, failingSegment, elementIndex);
+    }
+
+    static PathResult wrongType(JsonNode node, int failingSegment, int elementIndex) {
+        return new PathResult(Status.WRONG_TYPE, node, failingSegment, elementIndex);
+    }
+
+    public boolean isOk() {
+        return status == Status.OK;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /** The node the operation resolved, or for {@link Status#WRONG_TYPE} the offending node. */
+    public JsonNode getNode() {
+        return node;
+    }
+
+    /** Text of the resolved node, or {@code null} when the result is not {@link Status#OK}. */
+    public String textValue() {
+        return isOk() && node != null ? node.textValue() : null;
+    }
+
+    /** Index of the segment that failed, or -1 when the result is {@link Status#OK}. */
+    public int getFailingSegment() {
+        return failingSegment;
+    }
+
+    /** Array element being processed when the failure happened, or -1 when it happened on the path itself. */
+    public int getElementIndex() {
+        return elementIndex;
+    }
+
+    @Override
+    public String toString() {
+        if (isOk()) {
+            return "OK";
+        }
+        return status + " at segment " + failingSegment + (elementIndex < 0 ? "" : " of element " + elementIndex);
+    }
+}
@@ -0,0 +1,141 @@
+package org.example;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A range of UTF-8 encoded JSON inside a shared input buffer, written out verbatim as a raw value. Byte
+ * generators copy the range straight from the buffer; the decoded {@code String} is only built for
+ * character-based generators.
+ */
+final class RawJsonBytes implements SerializableString {
+
+    private final byte[] buffer;
+    private final int offset;
+    private final int length;
+
+    private String value;
+
+    RawJsonBytes(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    int byteLength() {
+        return length;
+    }
+
+    @Override
+    public String getValue() {
+        String result = value;
+        if (result == null) {
+            result = new String(buffer, offset, length, StandardCharsets.UTF_8);
+            value = result;
+        }
+        return result;
+    }
+
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        return JsonStringEncoder.getInstance().quoteAsString(getValue());
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return Arrays.copyOfRange(buffer, offset, offset + length);
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return JsonStringEncoder.getInstance().quoteAsUTF8(getValue());
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] out, int outOffset) {
+        return copy(asQuotedUTF8(), out, outOffset);
+    }
+
+    @Override
+    public int appendQuoted(char[] out, int outOffset) {
+        return copy(asQuotedChars(), out, outOffset);
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] out, int outOffset) {
+        if (outOffset + length > out.length) {
+            return -1;
+        }
+        System.arraycopy(buffer, offset, out, outOffset, length);
+        return length;
+    }
+
+    @Override
+    public int appendUnquoted(char[] out, int outOffset) {
+        return copy(getValue().toCharArray(), out, outOffset);
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        byte[] quoted = asQuotedUTF8();
+        out.write(quoted);
+        return quoted.length;
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(buffer, offset, length);
+        return length;
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer out) {
+        byte[] quoted = asQuotedUTF8();
+        if (quoted.length > out.remaining()) {
+            return -1;
+        }
+        out.put(quoted);
+        return quoted.length;
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer out) {
+        if (length > out.remaining()) {
+            return -1;
+        }
+        out.put(buffer, offset, length);
+        return length;
+    }
+
+    private static int copy(byte[] source, byte[] out, int outOffset) {
+        if (outOffset + source.length > out.length) {
+            return -1;
+        }
+        System.arraycopy(source, 0, out, outOffset, source.length);
+        return source.length;
+    }
+
+    private static int copy(char[] source, char[] out, int outOffset) {
+        if (outOffset + source.length > out.length) {
+            return -1;
+        }
+        System.arraycopy(source, 0, out, outOffset, source.length);
+        return source.length;
+    }
+
+    @Override
+    public String toString() {
+        return getValue();
+    }
+}
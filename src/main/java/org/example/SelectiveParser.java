@@ -0,0 +1,103 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses only the parts of a document that a known set of paths can reach. Objects on the way to a path are
+ * built as {@link ObjectNode}s and the node at the end of a path is read in full. Any other object or array is
+ * skipped with {@link JsonParser#skipChildren()} and kept as a raw value over its bytes in the input, which is
+ * copied verbatim when the tree is written. Skipped subtrees look like opaque leaves to {@link JsonNodeUtils},
+ * and the tree holds on to the input array for as long as it is alive.
+ */
+public final class SelectiveParser {
+
+    private static final class PathNode {
+        final Map<String, PathNode> children = new HashMap<>();
+        boolean complete;
+    }
+
+    private final PathNode root = new PathNode();
+
+    public SelectiveParser(JsonPath... paths) {
+        this(Arrays.asList(paths));
+    }
+
+    public SelectiveParser(Collection<JsonPath> paths) {
+        for (JsonPath path : paths) {
+            add(path, true);
+        }
+    }
+
+    /**
+     * A parser for documents that {@code plan} will be applied to: arrays the plan walks are read in full, and
+     * objects it edits directly are built one level deep.
+     */
+    public static SelectiveParser forPlan(TransformPlan plan) {
+        SelectiveParser parser = new SelectiveParser();
+        for (TransformPlan.Group group : plan.groups()) {
+            parser.add(group.path, !group.objectTarget);
+        }
+        return parser;
+    }
+
+    private void add(JsonPath path, boolean complete) {
+        PathNode node = root;
+        for (int i = 0; i < path.size(); i++) {
+            node = node.children.computeIfAbsent(path.segment(i), k -> new PathNode());
+        }
+        node.complete |= complete;
+    }
+
+    public JsonNode parse(byte[] bytes) throws IOException {
+        return parse(bytes, 0, bytes.length);
+    }
+
+    public JsonNode parse(byte[] bytes, int offset, int length) throws IOException {
+        ObjectMapper mapper = JsonMappers.getObjectMapper();
+        try (JsonParser parser = mapper.getFactory().createParser(bytes, offset, length)) {
+            if (parser.nextToken() == null) {
+                throw new IOException("No JSON content");
+            }
+            return read(parser, root, mapper, bytes, offset);
+        }
+    }
+
+    private static JsonNode read(JsonParser parser, PathNode pathNode, ObjectMapper mapper, byte[] bytes, int offset) throws IOException {
+        if (pathNode.complete || parser.currentToken() != JsonToken.START_OBJECT) {
+            return readValue(parser, mapper);
+        }
+        JsonNodeFactory factory = mapper.getNodeFactory();
+        ObjectNode objectNode = factory.objectNode();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            JsonToken token = parser.nextToken();
+            PathNode child = pathNode.children.get(name);
+            if (child != null) {
+                objectNode.set(name, read(parser, child, mapper, bytes, offset));
+            } else if (token.isStructStart()) {
+                int start = offset + (int) parser.getTokenLocation().getByteOffset();
+                parser.skipChildren();
+                int end = offset + (int) parser.getCurrentLocation().getByteOffset();
+                objectNode.set(name, factory.rawValueNode(new RawValue(new RawJsonBytes(bytes, start, end - start))));
+            } else {
+                objectNode.set(name, readValue(parser, mapper));
+            }
+        }
+        return objectNode;
+    }
+
+    private static JsonNode readValue(JsonParser parser, ObjectMapper mapper) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? mapper.getNodeFactory().nullNode() : mapper.readTree(parser);
+    }
+}
@@ -0,0 +1,95 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * {@link JsonBytes} for the binary Smile format, for documents that are stored between pipeline stages rather
+ * than sent to a JSON client. Smile reads into the same {@link JsonNode} trees, so every path operation works
+ * on them unchanged, and {@link StreamingTransformer} converts between the formats given the two factories.
+ * Trees from {@link SelectiveParser} hold raw JSON text and can only be written back as JSON.
+ */
+@UtilityClass
+public class SmileBytes {
+
+    /** {@code :)\n}, the start of every Smile document written with the default header. */
+    private static final byte[] HEADER = {':', ')', '\n'};
+
+    public static JsonFactory getFactory() {
+        return JsonMappers.getSmileMapper().getFactory();
+    }
+
+    /** Whether {@code bytes} start with a Smile header, as opposed to JSON text. */
+    public static boolean isSmile(byte[] bytes, int offset, int length) {
+        if (length < HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; i++) {
+            if (bytes[offset + i] != HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static JsonNode read(byte[] bytes) throws IOException {
+        return read(bytes, 0, bytes.length);
+    }
+
+    public static JsonNode read(byte[] bytes, int offset, int length) throws IOException {
+        return JsonMappers.getSmileMapper().readTree(bytes, offset, length);
+    }
+
+    /** Reads one document from {@code in}; the stream is left open, as in {@link JsonBytes#read(InputStream)}. */
+    public static JsonNode read(InputStream in) throws IOException {
+        ObjectMapper mapper = JsonMappers.getSmileMapper();
+        try (JsonParser parser = mapper.getFactory().createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            JsonNode jsonNode = mapper.readTree(parser);
+            return jsonNode == null ? MissingNode.getInstance() : jsonNode;
+        }
+    }
+
+    /** Reads Smile or JSON text, whichever {@code bytes} hold. */
+    public static JsonNode readEither(byte[] bytes) throws IOException {
+        return isSmile(bytes, 0, bytes.length) ? read(bytes) : JsonBytes.read(bytes);
+    }
+
+    public static void write(JsonNode jsonNode, OutputStream out) throws IOException {
+        ObjectMapper mapper = JsonMappers.getSmileMapper();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            mapper.writeTree(generator, jsonNode);
+        }
+    }
+
+    /** Shares the per-thread buffer of {@link JsonBytes#writeToBuffer}; the view is valid until its next use. */
+    public static ByteBuffer writeToBuffer(JsonNode jsonNode) throws IOException {
+        ByteBufferOutputStream buffer = JsonBytes.acquireBuffer();
+        write(jsonNode, buffer);
+        return buffer.toByteBuffer();
+    }
+
+    public static void transform(byte[] in, Consumer<JsonNode> operations, OutputStream out) throws IOException {
+        JsonNode jsonNode = read(in);
+        operations.accept(jsonNode);
+        write(jsonNode, out);
+    }
+
+    public static ByteBuffer transformToBuffer(byte[] in, Consumer<JsonNode> operations) throws IOException {
+        JsonNode jsonNode = read(in);
+        operations.accept(jsonNode);
+        return writeToBuffer(jsonNode);
+    }
+}
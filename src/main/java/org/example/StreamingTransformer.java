@@ -0,0 +1,233 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a {@link TransformPlan} while copying tokens from a {@link JsonParser} to a {@link JsonGenerator}.
+ * Only the array element currently being edited is materialized as a {@link JsonNode}; everything off the
+ * plan's paths is copied through token by token, so memory stays bounded by the largest edited element.
+ */
+public final class StreamingTransformer {
+
+    private static final class PathNode {
+        final Map<String, PathNode> children = new HashMap<>();
+        TransformPlan.Group elementGroup;
+        TransformPlan.Group objectGroup;
+        Map<String, TransformPlan.Step> objectEdits;
+    }
+
+    private final TransformPlan plan;
+    private final PathNode root = new PathNode();
+
+    public StreamingTransformer(TransformPlan plan) {
+        this.plan = plan;
+        for (TransformPlan.Group group : plan.groups()) {
+            PathNode node = root;
+            for (int i = 0; i < group.path.size(); i++) {
+                node = node.children.computeIfAbsent(group.path.segment(i), k -> new PathNode());
+            }
+            if (node.elementGroup != null || node.objectEdits != null) {
+                throw new IllegalArgumentException("Plan touches '" + group.path + "' in more than one traversal and cannot be streamed");
+            }
+            if (group.objectTarget) {
+                // Later steps on the same key win, exactly as repeated put/remove calls on an ObjectNode would.
+                node.objectGroup = group;
+                node.objectEdits = new LinkedHashMap<>();
+                for (TransformPlan.Step step : group.steps) {
+                    node.objectEdits.remove(step.objectField);
+                    node.objectEdits.put(step.objectField, step);
+                }
+            } else {
+                node.elementGroup = group;
+            }
+        }
+        validate(root, "");
+    }
+
+    private static void validate(PathNode node, String path) {
+        if (node.elementGroup != null && !node.children.isEmpty()) {
+            // Elements are materialized and edited whole, so nothing below them is streamed separately.
+            throw new IllegalArgumentException("Plan walks the elements of '" + path.substring(0, Math.max(0, path.length() - 1))
+                    + "' and a path below it and cannot be streamed");
+        }
+        if (node.objectEdits != null) {
+            for (String field : node.objectEdits.keySet()) {
+                if (node.children.containsKey(field)) {
+                    throw new IllegalArgumentException("Plan edits '" + path + field + "' and a path below it and cannot be streamed");
+                }
+            }
+        }
+        for (Map.Entry<String, PathNode> child : node.children.entrySet()) {
+            validate(child.getValue(), path + child.getKey() + ".");
+        }
+    }
+
+    public TransformPlan getPlan() {
+        return plan;
+    }
+
+    public void transform(InputStream in, OutputStream out) throws IOException {
+        JsonFactory factory = JsonMappers.getObjectMapper().getFactory();
+        try (JsonParser parser = factory.createParser(in);
+             JsonGenerator generator = factory.createGenerator(out)) {
+            transform(parser, generator);
+        }
+    }
+
+    public void transform(byte[] in, OutputStream out) throws IOException {
+        transform(in, 0, in.length, out);
+    }
+
+    public void transform(byte[] in, int offset, int length, OutputStream out) throws IOException {
+        JsonFactory factory = JsonMappers.getObjectMapper().getFactory();
+        try (JsonParser parser = factory.createParser(in, offset, length);
+             JsonGenerator generator = factory.createGenerator(out)) {
+            transform(parser, generator);
+        }
+    }
+
+    public void transform(ByteBuffer in, OutputStream out) throws IOException {
+        if (in.hasArray()) {
+            transform(in.array(), in.arrayOffset() + in.position(), in.remaining(), out);
+        } else {
+            transform(new ByteBufferBackedInputStream(in.duplicate()), out);
+        }
+    }
+
+    /**
+     * Reads {@code in} with {@code inputFactory} and writes {@code out} with {@code outputFactory}, e.g. JSON in
+     * and {@link SmileBytes#getFactory() Smile} out.
+     */
+    public void transform(InputStream in, JsonFactory inputFactory, OutputStream out, JsonFactory outputFactory) throws IOException {
+        try (JsonParser parser = inputFactory.createParser(in);
+             JsonGenerator generator = outputFactory.createGenerator(out)) {
+            transform(parser, generator);
+        }
+    }
+
+    public void transform(Reader in, Writer out) throws IOException {
+        JsonFactory factory = JsonMappers.getObjectMapper().getFactory();
+        try (JsonParser parser = factory.createParser(in);
+             JsonGenerator generator = factory.createGenerator(out)) {
+            transform(parser, generator);
+        }
+    }
+
+    public void transform(JsonParser parser, JsonGenerator generator) throws IOException {
+        Set<TransformPlan.Group> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (parser.nextToken() != null) {
+            copyValue(parser, generator, root, visited);
+        }
+        generator.flush();
+
+        for (TransformPlan.Group group : plan.groups()) {
+            if (!visited.contains(group) && !group.allowsMissingArray()) {
+                throw new NullPointerException("No array at path '" + group.path + "'");
+            }
+        }
+    }
+
+    private void copyValue(JsonParser parser, JsonGenerator generator, PathNode node, Set<TransformPlan.Group> visited) throws IOException {
+        if (node == null) {
+            generator.copyCurrentStructure(parser);
+            return;
+        }
+
+        JsonToken token = parser.currentToken();
+        if (node.elementGroup != null) {
+            // Like TransformPlan.apply, a present scalar or null counts as an array without elements.
+            visited.add(node.elementGroup);
+        }
+        if (node.elementGroup != null && (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT)) {
+            transformElements(parser, generator, node.elementGroup.steps, token == JsonToken.START_OBJECT);
+        } else if (node.objectEdits != null && token != JsonToken.START_OBJECT) {
+            // TransformPlan.apply fails the same way when an object edit meets anything but an object.
+            throw new ClassCastException("No object at path '" + node.objectGroup.path + "' but " + token);
+        } else if (token == JsonToken.START_OBJECT) {
+            copyObject(parser, generator, node, visited);
+        } else {
+            generator.copyCurrentStructure(parser);
+        }
+    }
+
+    private void copyObject(JsonParser parser, JsonGenerator generator, PathNode node, Set<TransformPlan.Group> visited) throws IOException {
+        Map<String, TransformPlan.Step> edits = node.objectEdits;
+        Map<String, TransformPlan.Step> pending = edits == null ? null : new LinkedHashMap<>(edits);
+
+        generator.writeStartObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+
+            TransformPlan.Step edit = pending == null ? null : pending.remove(fieldName);
+            if (edit != null) {
+                parser.skipChildren();
+                if (!edit.objectRemoval) {
+                    generator.writeStringField(fieldName, edit.objectValue);
+                }
+                continue;
+            }
+
+            generator.writeFieldName(fieldName);
+            copyValue(parser, generator, node.children.get(fieldName), visited);
+        }
+        if (pending != null) {
+            for (TransformPlan.Step edit : pending.values()) {
+                if (!edit.objectRemoval) {
+                    generator.writeStringField(edit.objectField, edit.objectValue);
+                }
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private void transformElements(JsonParser parser, JsonGenerator generator, List<TransformPlan.Step> steps, boolean objectValues) throws IOException {
+        ObjectMapper mapper = JsonMappers.getObjectMapper();
+        int stepCount = steps.size();
+        int index = 0;
+        JsonToken end = objectValues ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+
+        if (objectValues) {
+            generator.writeStartObject();
+        } else {
+            generator.writeStartArray();
+        }
+        for (JsonToken token = parser.nextToken(); token != end; token = parser.nextToken()) {
+            if (objectValues) {
+                generator.writeFieldName(parser.currentName());
+                parser.nextToken();
+            }
+            JsonNode element = mapper.readTree(parser);
+            for (int i = 0; i < stepCount; i++) {
+                steps.get(i).operation.apply(element, index);
+            }
+            mapper.writeTree(generator, element);
+            index++;
+        }
+        if (objectValues) {
+            generator.writeEndObject();
+        } else {
+            generator.writeEndArray();
+        }
+    }
+}
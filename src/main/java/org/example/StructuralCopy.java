@@ -0,0 +1,101 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Copy-on-write view over a source tree. Containers are copied one level at a time, only when an edit has to
+ * go through them, and the copies reference the source's children until those are copied in turn.
+ */
+final class StructuralCopy {
+
+    private final Set<JsonNode> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final JsonNode root;
+
+    StructuralCopy(JsonNode source) {
+        this.root = adopt(shallowCopy(source));
+    }
+
+    JsonNode root() {
+        return root;
+    }
+
+    boolean owns(JsonNode node) {
+        return owned.contains(node);
+    }
+
+    /** Copies every container from {@code start} (already owned) down to {@code path}, returning the last one. */
+    JsonNode own(JsonNode start, JsonPath path) {
+        JsonNode current = start;
+        for (int i = 0; i < path.size() && current != null; i++) {
+            JsonNode child = current.get(path.segment(i));
+            if (child != null && !owned.contains(child)) {
+                child = adopt(shallowCopy(child));
+                ((ObjectNode) current).set(path.segment(i), child);
+            }
+            current = child;
+        }
+        return current;
+    }
+
+    /** Copies {@code node} and the containers below it along {@code path} without claiming them yet. */
+    JsonNode copyPath(JsonNode node, JsonPath path) {
+        JsonNode copy = shallowCopy(node);
+        JsonNode current = copy;
+        for (int i = 0; i < path.size() && current instanceof ObjectNode; i++) {
+            JsonNode child = current.get(path.segment(i));
+            if (child == null) {
+                break;
+            }
+            child = shallowCopy(child);
+            ((ObjectNode) current).set(path.segment(i), child);
+            current = child;
+        }
+        return copy;
+    }
+
+    /**
+     * Puts a copy made by {@link #copyPath} into an owned container and claims it: at {@code field} of an object,
+     * or at {@code index} of an array when {@code field} is {@code null}.
+     */
+    void replaceElement(JsonNode container, int index, String field, JsonNode element, JsonPath path) {
+        if (field != null) {
+            ((ObjectNode) container).set(field, element);
+        } else {
+            ((ArrayNode) container).set(index, element);
+        }
+        JsonNode current = adopt(element);
+        for (int i = 0; i < path.size() && current != null; i++) {
+            current = current.get(path.segment(i));
+            if (current != null) {
+                adopt(current);
+            }
+        }
+    }
+
+    private JsonNode adopt(JsonNode node) {
+        if (node.isContainerNode()) {
+            owned.add(node);
+        }
+        return node;
+    }
+
+    static JsonNode shallowCopy(JsonNode node) {
+        if (node instanceof ObjectNode) {
+            ObjectNode copy = ((ObjectNode) node).objectNode();
+            copy.setAll((ObjectNode) node);
+            return copy;
+        }
+        if (node instanceof ArrayNode) {
+            ArrayNode copy = ((ArrayNode) node).arrayNode(node.size());
+            copy.addAll((ArrayNode) node);
+            return copy;
+        }
+        return node;
+    }
+}
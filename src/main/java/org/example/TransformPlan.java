@@ -0,0 +1,407 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A recorded sequence of {@link JsonNodeUtils} operations. Operations that target the same array are fused,
+ * so {@link #apply(JsonNode)} walks every array once and runs all of its operations per element, with the
+ * same result as calling the {@link JsonNodeUtils} methods one after another.
+ */
+public final class TransformPlan {
+
+    @FunctionalInterface
+    interface ElementOperation {
+        /** Returns whether the element was changed. */
+        boolean apply(JsonNode element, int index);
+    }
+
+    static final class Step {
+        final String name;
+        final ElementOperation operation;
+        final boolean allowsMissingArray;
+        final String objectField;
+        final String objectValue;
+        final boolean objectRemoval;
+        /** Where below the element the operation writes; only this path is copied in copy-on-write mode. */
+        JsonPath writePath = JsonPath.ROOT;
+        /**
+         * Read-only check of whether the operation would change an element, so copy-on-write mode copies only
+         * the elements that need it; {@code null} when the operation changes every element.
+         */
+        ElementOperation changes;
+
+        Step(String name, ElementOperation operation, boolean allowsMissingArray) {
+            this(name, operation, allowsMissingArray, null, null, false);
+        }
+
+        Step(String name, ElementOperation operation, boolean allowsMissingArray, String objectField, String objectValue, boolean objectRemoval) {
+            this.name = name;
+            this.operation = operation;
+            this.allowsMissingArray = allowsMissingArray;
+            this.objectField = objectField;
+            this.objectValue = objectValue;
+            this.objectRemoval = objectRemoval;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static final class Group {
+        final JsonPath path;
+        final boolean objectTarget;
+        final List<Step> steps = new ArrayList<>();
+
+        Group(JsonPath path, boolean objectTarget) {
+            this.path = path;
+            this.objectTarget = objectTarget;
+        }
+
+        boolean allowsMissingArray() {
+            for (Step step : steps) {
+                if (!step.allowsMissingArray) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final String OPERATION_NAME = "TransformPlan.apply";
+
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private final List<Group> groups;
+    private final long id = IDS.incrementAndGet();
+
+    private TransformPlan(List<Group> groups) {
+        this.groups = groups;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public void apply(JsonNode jsonNode) {
+        for (Group group : groups) {
+            applyGroup(group, jsonNode);
+        }
+    }
+
+    void applyGroup(Group group, JsonNode jsonNode) {
+        long start = JsonNodeUtils.startTiming();
+        JsonNode arrayNode = group.path.resolve(jsonNode);
+        if (arrayNode == null) {
+            if (group.allowsMissingArray()) {
+                return;
+            }
+            throw new NullPointerException("No array at path '" + group.path + "'");
+        }
+
+        List<Step> steps = group.steps;
+        int stepCount = steps.size();
+        int modified = 0;
+        if (group.objectTarget) {
+            for (int i = 0; i < stepCount; i++) {
+                if (steps.get(i).operation.apply(arrayNode, -1)) {
+                    modified++;
+                }
+            }
+            JsonNodeUtils.record(OPERATION_NAME, group.path, start, null, modified);
+            return;
+        }
+        int index = 0;
+        for (JsonNode element : arrayNode) {
+            boolean changed = false;
+            for (int i = 0; i < stepCount; i++) {
+                changed |= steps.get(i).operation.apply(element, index);
+            }
+            if (changed) {
+                modified++;
+            }
+            index++;
+        }
+        JsonNodeUtils.record(OPERATION_NAME, group.path, start, arrayNode, modified);
+    }
+
+    /**
+     * Applies the plan without touching {@code jsonNode}: containers on the way to each edit are copied and
+     * everything else is shared with the input, so the input can be a cached template. The result must be
+     * treated as read-only too, since editing a shared subtree would show through in the input.
+     */
+    public JsonNode applyCopyOnWrite(JsonNode jsonNode) {
+        StructuralCopy copy = new StructuralCopy(jsonNode);
+        for (Group group : groups) {
+            applyGroupCopyOnWrite(group, copy);
+        }
+        return copy.root();
+    }
+
+    private void applyGroupCopyOnWrite(Group group, StructuralCopy copy) {
+        long start = JsonNodeUtils.startTiming();
+        if (group.path.resolve(copy.root()) == null) {
+            if (group.allowsMissingArray()) {
+                return;
+            }
+            throw new NullPointerException("No array at path '" + group.path + "'");
+        }
+
+        JsonNode target = copy.own(copy.root(), group.path);
+        List<Step> steps = group.steps;
+        int stepCount = steps.size();
+        int modified = 0;
+        if (group.objectTarget) {
+            for (int i = 0; i < stepCount; i++) {
+                if (steps.get(i).operation.apply(target, -1)) {
+                    modified++;
+                }
+            }
+            JsonNodeUtils.record(OPERATION_NAME, group.path, start, null, modified);
+            return;
+        }
+        // Like applyGroup, walk the values of an object target as well as the elements of an array.
+        List<String> fieldNames = null;
+        if (target.isObject()) {
+            fieldNames = new ArrayList<>(target.size());
+            target.fieldNames().forEachRemaining(fieldNames::add);
+        }
+        int count = fieldNames == null ? target.size() : fieldNames.size();
+        for (int index = 0; index < count; index++) {
+            String field = fieldNames == null ? null : fieldNames.get(index);
+            boolean changed = false;
+            for (int i = 0; i < stepCount; i++) {
+                Step step = steps.get(i);
+                JsonNode element = field == null ? target.get(index) : target.get(field);
+                if (copy.owns(element)) {
+                    copy.own(element, step.writePath);
+                    changed |= step.operation.apply(element, index);
+                    continue;
+                }
+                if (step.changes != null && !step.changes.apply(element, index)) {
+                    continue;
+                }
+                JsonNode candidate = copy.copyPath(element, step.writePath);
+                if (step.operation.apply(candidate, index)) {
+                    copy.replaceElement(target, index, field, candidate, step.writePath);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                modified++;
+            }
+        }
+        JsonNodeUtils.record(OPERATION_NAME, group.path, start, target, modified);
+    }
+
+    List<Group> groups() {
+        return groups;
+    }
+
+    /**
+     * Unique per built plan, for keying cached results. {@link #toString()} is not a safe key because it does not
+     * describe functions and lookup maps captured by a step.
+     */
+    public long id() {
+        return id;
+    }
+
+    public int traversalCount() {
+        return groups.size();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("TransformPlan[");
+        for (int i = 0; i < groups.size(); i++) {
+            Group group = groups.get(i);
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append(group.path).append(group.steps);
+        }
+        return result.append(']').toString();
+    }
+
+    public static final class Builder {
+
+        private final List<Group> groups = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder addAFieldByPath(String[] pathFields, String key, String value) {
+            return addAFieldByPath(JsonPath.compile(pathFields), key, value);
+        }
+
+        public Builder addAFieldByPath(JsonPath path, String key, String value) {
+            Step step = new Step("addAField(" + key + "=\"" + value + "\")",
+                    (node, index) -> JsonNodeUtils.addAField(node, key, value) > 0, true, key, value, false);
+            return add(path, true, step);
+        }
+
+        public Builder removeFieldByPathAndName(String[] pathFields, String fieldName) {
+            return removeFieldByPathAndName(JsonPath.compile(pathFields), fieldName);
+        }
+
+        public Builder removeFieldByPathAndName(JsonPath path, String fieldName) {
+            Step step = new Step("removeField(" + fieldName + ")",
+                    (node, index) -> JsonNodeUtils.removeField(node, fieldName) > 0, true, fieldName, null, true);
+            return add(path, true, step);
+        }
+
+        public Builder removeFieldOfListByPathAndName(String[] pathFields, String fieldName) {
+            return removeFieldOfListByPathAndName(JsonPath.compile(pathFields), fieldName);
+        }
+
+        public Builder removeFieldOfListByPathAndName(JsonPath path, String fieldName) {
+            return add(path, "removeFieldOfList(" + fieldName + ")", true,
+                    (element, index) -> JsonNodeUtils.removeFieldOfListElement(element, fieldName),
+                    (element, index) -> JsonNodeUtils.removeFieldOfListElementApplies(element, fieldName));
+        }
+
+        public Builder addPositionByPath(String[] pathFields, String fieldName) {
+            return addPositionByPath(JsonPath.compile(pathFields), fieldName);
+        }
+
+        public Builder addPositionByPath(JsonPath path, String fieldName) {
+            return add(path, "addPosition(" + fieldName + ")", false,
+                    (element, index) -> JsonNodeUtils.addPositionElement(element, fieldName, index));
+        }
+
+        public Builder addFieldToArrayFieldByPathAndFieldName(String[] pathFields, String fieldName, String objectName, Map<String, Boolean> rulesToReadOnlyValues) {
+            return addFieldToArrayFieldByPathAndFieldName(JsonPath.compile(pathFields), fieldName, objectName, rulesToReadOnlyValues);
+        }
+
+        public Builder addFieldToArrayFieldByPathAndFieldName(JsonPath path, String fieldName, String objectName, Map<String, Boolean> rulesToReadOnlyValues) {
+            return add(path, "addField(" + fieldName + "<-" + objectName + ")", false,
+                    (element, index) -> JsonNodeUtils.addFieldToArrayElement(element, fieldName, objectName, rulesToReadOnlyValues));
+        }
+
+        public Builder addFieldToArrayFieldByPathAndFieldName(String[] pathFields, String fieldName, boolean fieldValue) {
+            return addFieldToArrayFieldByPathAndFieldName(JsonPath.compile(pathFields), fieldName, fieldValue);
+        }
+
+        public Builder addFieldToArrayFieldByPathAndFieldName(JsonPath path, String fieldName, boolean fieldValue) {
+            return add(path, "addField(" + fieldName + "=" + fieldValue + ")", false,
+                    (element, index) -> JsonNodeUtils.addFieldToArrayElement(element, fieldName, fieldValue));
+        }
+
+        public Builder addFieldToArrayFieldByPathAndFieldName(String[] pathFields, String fieldName, String fieldValue) {
+            return addFieldToArrayFieldByPathAndFieldName(JsonPath.compile(pathFields), fieldName, fieldValue);
+        }
+
+        public Builder addFieldToArrayFieldByPathAndFieldName(JsonPath path, String fieldName, String fieldValue) {
+            return add(path, "addField(" + fieldName + "=\"" + fieldValue + "\")", false,
+                    (element, index) -> JsonNodeUtils.addFieldToArrayElement(element, fieldName, fieldValue));
+        }
+
+        public Builder convertFieldByPath(String[] pathFields, Function<List<String>, String> func) {
+            return convertFieldByPath(JsonPath.compile(pathFields), func);
+        }
+
+        public Builder convertFieldByPath(JsonPath path, Function<List<String>, String> func) {
+            String fieldName = path.lastSegment();
+            return add(path.parent(), "convertField(" + fieldName + ")", true,
+                    (element, index) -> JsonNodeUtils.convertFieldElement(element, fieldName, func));
+        }
+
+        /** {@link JsonNodeUtils#convertFieldByPathView} as a plan step: {@code func} gets a read-only view. */
+        public Builder convertFieldByPathView(JsonPath path, Function<List<String>, String> func) {
+            String fieldName = path.lastSegment();
+            return add(path.parent(), "convertFieldView(" + fieldName + ")", true,
+                    (element, index) -> JsonNodeUtils.convertFieldElementView(element, fieldName, func));
+        }
+
+        public Builder convertEmptyStringFieldToEmptyMap(String[] pathFields, String fieldName1, String fieldName2) {
+            return convertEmptyStringFieldToEmptyMap(JsonPath.compile(pathFields), fieldName1, fieldName2);
+        }
+
+        public Builder convertEmptyStringFieldToEmptyMap(JsonPath path, String fieldName1, String fieldName2) {
+            return add(path, "convertEmptyStringToEmptyMap(" + fieldName1 + "." + fieldName2 + ")", false,
+                    (element, index) -> JsonNodeUtils.convertEmptyStringFieldToEmptyMapElement(element, fieldName1, fieldName2),
+                    (element, index) -> JsonNodeUtils.convertEmptyStringFieldToEmptyMapElementApplies(element, fieldName1, fieldName2));
+        }
+
+        public Builder cleanFieldOfTwoEmptyFields(String[] pathFields, String fieldOfTwo, String nestedFirst, String nestedSecond) {
+            return cleanFieldOfTwoEmptyFields(JsonPath.compile(pathFields), fieldOfTwo, nestedFirst, nestedSecond);
+        }
+
+        public Builder cleanFieldOfTwoEmptyFields(JsonPath path, String fieldOfTwo, String nestedFirst, String nestedSecond) {
+            return add(path, "cleanFieldOfTwo(" + fieldOfTwo + ":" + nestedFirst + "," + nestedSecond + ")", false,
+                    (element, index) -> JsonNodeUtils.cleanFieldOfTwoEmptyFieldsElement(element, fieldOfTwo, nestedFirst, nestedSecond),
+                    (element, index) -> JsonNodeUtils.cleanFieldOfTwoEmptyFieldsElementApplies(element, fieldOfTwo, nestedFirst, nestedSecond));
+        }
+
+        public Builder cleanArrayFieldIfArrayIsEmpty(String[] pathFields, String[] pathFields2, String fieldName) {
+            return cleanArrayFieldIfArrayIsEmpty(JsonPath.compile(pathFields), JsonPath.compile(pathFields2), fieldName);
+        }
+
+        public Builder cleanArrayFieldIfArrayIsEmpty(JsonPath path, JsonPath path2, String fieldName) {
+            Step step = new Step("cleanEmptyArray(" + (path2.size() == 0 ? "" : path2 + ".") + fieldName + ")",
+                    (element, index) -> JsonNodeUtils.cleanArrayFieldIfArrayIsEmptyElement(element, path2.segments(), fieldName), false);
+            step.writePath = path2;
+            step.changes = (element, index) -> JsonNodeUtils.cleanArrayFieldIfArrayIsEmptyElementApplies(element, path2.segments(), fieldName);
+            return add(path, false, step);
+        }
+
+        public TransformPlan build() {
+            List<Group> result = new ArrayList<>(groups.size());
+            for (Group group : groups) {
+                Group copy = new Group(group.path, group.objectTarget);
+                copy.steps.addAll(group.steps);
+                result.add(copy);
+            }
+            return new TransformPlan(Collections.unmodifiableList(result));
+        }
+
+        private Builder add(JsonPath path, String name, boolean allowsMissingArray, ElementOperation operation) {
+            return add(path, false, new Step(name, operation, allowsMissingArray));
+        }
+
+        private Builder add(JsonPath path, String name, boolean allowsMissingArray, ElementOperation operation, ElementOperation changes) {
+            Step step = new Step(name, operation, allowsMissingArray);
+            step.changes = changes;
+            return add(path, false, step);
+        }
+
+        private Builder add(JsonPath path, boolean objectTarget, Step step) {
+            // Walk back to the latest traversal of the same array. Fusing with it is only safe when no traversal
+            // in between touches an enclosing or nested path, since that one could reshape what this path sees.
+            for (int i = groups.size() - 1; i >= 0; i--) {
+                Group group = groups.get(i);
+                if (group.path.equals(path) && group.objectTarget == objectTarget) {
+                    group.steps.add(step);
+                    return this;
+                }
+                if (isPrefix(group.path, path) || isPrefix(path, group.path)) {
+                    break;
+                }
+            }
+            Group group = new Group(path, objectTarget);
+            group.steps.add(step);
+            groups.add(group);
+            return this;
+        }
+
+        static boolean isPrefix(JsonPath prefix, JsonPath path) {
+            if (prefix.size() > path.size()) {
+                return false;
+            }
+            for (int i = 0; i < prefix.size(); i++) {
+                if (!prefix.segment(i).equals(path.segment(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link TransformSpec} loaded from a file. A reload compiles the new spec off to the side
+ * and then swaps it in with one atomic write: requests that already looked up a transform finish with the
+ * old one, later lookups see the new one, and nothing waits. A spec that fails to load leaves the current
+ * one in place.
+ */
+public final class TransformRegistry {
+
+    private final Path path;
+    private final AtomicReference<TransformSpec> current = new AtomicReference<>();
+    private volatile FileTime loadedModifiedTime;
+
+    public TransformRegistry(Path path) throws IOException {
+        this.path = path;
+        reload();
+    }
+
+    public TransformSpec.CompiledTransform get(String name) {
+        return current.get().get(name);
+    }
+
+    public TransformSpec current() {
+        return current.get();
+    }
+
+    public TransformSpec reload() throws IOException {
+        FileTime modified = Files.getLastModifiedTime(path);
+        TransformSpec spec = TransformSpec.load(path);
+        current.set(spec);
+        loadedModifiedTime = modified;
+        return spec;
+    }
+
+    /** Reloads when the file's modification time changed since the last load; returns whether it did. */
+    public boolean reloadIfModified() throws IOException {
+        if (Files.getLastModifiedTime(path).equals(loadedModifiedTime)) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
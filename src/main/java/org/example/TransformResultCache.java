@@ -0,0 +1,214 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cache of serialized {@link TransformPlan} results keyed by the input bytes, so a byte-identical document sent
+ * through the same plan is answered without parsing or transforming. Entries are found by a 64-bit hash and
+ * then confirmed by comparing the stored input, so hash collisions cannot return another document's output.
+ * The size limit counts input plus output bytes, evicting the least recently used entries, and entries
+ * expire after a fixed time to live.
+ */
+public final class TransformResultCache {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ENTRY_OVERHEAD = 96;
+
+    private static final class Key {
+        final long plan;
+        final long hash;
+        final int length;
+
+        Key(long plan, long hash, int length) {
+            this.plan = plan;
+            this.hash = hash;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return plan == other.plan && hash == other.hash && length == other.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash * 31 + plan);
+        }
+    }
+
+    private static final class Entry {
+        final byte[] input;
+        final byte[] output;
+        final long expiresAt;
+
+        Entry(byte[] input, byte[] output, long expiresAt) {
+            this.input = input;
+            this.output = output;
+            this.expiresAt = expiresAt;
+        }
+
+        long weight() {
+            return input.length + output.length + ENTRY_OVERHEAD;
+        }
+    }
+
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public TransformResultCache(long maxWeightBytes, long ttl, TimeUnit unit) {
+        if (maxWeightBytes < 1 || ttl < 1) {
+            throw new IllegalArgumentException("maxWeightBytes and ttl must be positive");
+        }
+        this.maxWeight = maxWeightBytes;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    /** The serialized result of {@code plan} applied to {@code input}, from the cache when possible. */
+    public ByteBuffer transform(TransformPlan plan, byte[] input) throws IOException {
+        return transform(plan, input, 0, input.length);
+    }
+
+    public ByteBuffer transform(TransformPlan plan, byte[] input, int offset, int length) throws IOException {
+        return transform(plan, input, offset, length, plan::apply);
+    }
+
+    /**
+     * Caches under {@code plan} but runs {@code operations} on a miss, e.g. a wrapper that times the plan.
+     * {@code operations} must have the same effect as {@code plan}.
+     */
+    public ByteBuffer transform(TransformPlan plan, byte[] input, int offset, int length, Consumer<JsonNode> operations) throws IOException {
+        Objects.checkFromIndexSize(offset, length, input.length);
+        Key key = new Key(plan.id(), hash(input, offset, length), length);
+        byte[] cached = lookup(key, input, offset, length);
+        if (cached != null) {
+            return ByteBuffer.wrap(cached).asReadOnlyBuffer();
+        }
+
+        JsonNode jsonNode = JsonBytes.read(input, offset, length);
+        operations.accept(jsonNode);
+        ByteBuffer result = JsonBytes.writeToBuffer(jsonNode);
+        byte[] output = new byte[result.remaining()];
+        result.get(output);
+        store(key, new Entry(Arrays.copyOfRange(input, offset, offset + length), output, System.nanoTime() + ttlNanos));
+        return ByteBuffer.wrap(output).asReadOnlyBuffer();
+    }
+
+    private synchronized byte[] lookup(Key key, byte[] input, int offset, int length) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+            entries.remove(key);
+            weight -= entry.weight();
+            expirations++;
+            entry = null;
+        }
+        if (entry != null && Arrays.equals(entry.input, 0, length, input, offset, offset + length)) {
+            hits++;
+            return entry.output;
+        }
+        misses++;
+        return null;
+    }
+
+    private synchronized void store(Key key, Entry entry) {
+        if (entry.weight() > maxWeight) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            weight -= previous.weight();
+        }
+        weight += entry.weight();
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().weight();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /** 64-bit multiply-xorshift hash over 8-byte words; fast, not cryptographic. */
+    static long hash(byte[] bytes, int offset, int length) {
+        long h = 0x9E3779B97F4A7C15L ^ length;
+        int i = offset;
+        int end = offset + length;
+        for (; i + 8 <= end; i += 8) {
+            h = mix(h ^ (long) LONGS.get(bytes, i));
+        }
+        long tail = 0;
+        for (int shift = 0; i < end; i++, shift += 8) {
+            tail |= (bytes[i] & 0xFFL) << shift;
+        }
+        return mix(h ^ tail);
+    }
+
+    private static long mix(long h) {
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 31;
+        h *= 0x94D049BB133111EBL;
+        return h ^ (h >>> 29);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public synchronized long expirations() {
+        return expirations;
+    }
+
+    public synchronized double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("TransformResultCache[size=%d, weight=%d, hits=%d, misses=%d, evictions=%d, expirations=%d]",
+                entries.size(), weight, hits, misses, evictions, expirations);
+    }
+}
@@ -0,0 +1,262 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Local HTTP front end for named {@link TransformPlan}s: {@code POST /transform/<name>} with a JSON body returns
+ * the transformed document. Requests run one per virtual thread when the JVM supports them (Java 21+), else on
+ * a bounded pool of {@value #MAX_REQUEST_THREADS} threads with {@value #MAX_QUEUED_REQUESTS} queued requests;
+ * a request arriving while both are full gets {@code 503}. Admission is further limited by the total size of
+ * request bodies in flight; a request whose body does not fit within the wait time gets {@code 503} as well.
+ */
+public final class TransformServer {
+
+    public static final String CONTEXT = "/transform/";
+
+    private static final long ADMISSION_TIMEOUT_MILLIS = 250;
+
+    static final int MAX_REQUEST_THREADS = 64;
+    static final int MAX_QUEUED_REQUESTS = 256;
+
+    /** Set while a request the executor turned away runs on the dispatcher thread, just to be answered 503. */
+    private static final ThreadLocal<Boolean> REJECTED = new ThreadLocal<>();
+
+    private static final System.Logger LOG = System.getLogger(TransformServer.class.getName());
+
+    private final HttpServer server;
+    private final Map<String, TransformPlan> plans = new ConcurrentHashMap<>();
+    private final int maxInFlightBytes;
+    private final Semaphore inFlightBytes;
+    private final ExecutorService executor;
+    private volatile TransformResultCache resultCache;
+    private volatile TransformRegistry registry;
+
+    public TransformServer(int port, int maxInFlightBytes) throws IOException {
+        this(port, maxInFlightBytes, newRequestExecutor());
+    }
+
+    TransformServer(int port, int maxInFlightBytes, ExecutorService executor) throws IOException {
+        if (maxInFlightBytes < 1) {
+            throw new IllegalArgumentException("maxInFlightBytes must be positive");
+        }
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.inFlightBytes = new Semaphore(maxInFlightBytes);
+        this.executor = executor;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.server.createContext(CONTEXT, this::handle);
+        this.server.setExecutor(this::dispatch);
+    }
+
+    public TransformServer register(String name, TransformPlan plan) {
+        plans.put(name, plan);
+        return this;
+    }
+
+    /** Answers repeated byte-identical requests from {@code cache}; {@code null} turns caching off. */
+    public TransformServer withResultCache(TransformResultCache cache) {
+        this.resultCache = cache;
+        return this;
+    }
+
+    /** Serves the transforms of {@code registry} too; they take precedence over {@link #register}ed plans. */
+    public TransformServer withRegistry(TransformRegistry registry) {
+        this.registry = registry;
+        return this;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public int availableBytes() {
+        return inFlightBytes.availablePermits();
+    }
+
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return newBoundedExecutor(MAX_REQUEST_THREADS, MAX_QUEUED_REQUESTS);
+        }
+    }
+
+    static ExecutorService newBoundedExecutor(int threads, int queuedRequests) {
+        BlockingQueue<Runnable> queue = queuedRequests == 0
+                ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queuedRequests);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private void dispatch(Runnable exchangeTask) {
+        try {
+            executor.execute(exchangeTask);
+        } catch (RejectedExecutionException e) {
+            REJECTED.set(Boolean.TRUE);
+            try {
+                exchangeTask.run();
+            } finally {
+                REJECTED.remove();
+            }
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (REJECTED.get() != null) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "Too many requests in flight");
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendError(exchange, 405, "Only POST is supported");
+                return;
+            }
+            String name = exchange.getRequestURI().getPath().substring(CONTEXT.length());
+            TransformRegistry currentRegistry = registry;
+            TransformSpec.CompiledTransform compiled = currentRegistry == null ? null : currentRegistry.get(name);
+            TransformPlan plan = compiled != null ? compiled.getPlan() : plans.get(name);
+            if (plan == null) {
+                sendError(exchange, 404, "Unknown transform");
+                return;
+            }
+            String lengthHeader = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (lengthHeader == null) {
+                sendError(exchange, 411, "Content-Length is required");
+                return;
+            }
+            long length = Long.parseLong(lengthHeader);
+            if (length < 0) {
+                sendError(exchange, 400, "Malformed Content-Length");
+                return;
+            }
+            if (length > maxInFlightBytes) {
+                sendError(exchange, 413, "Body exceeds " + maxInFlightBytes + " bytes");
+                return;
+            }
+
+            int permits = (int) length;
+            if (!inFlightBytes.tryAcquire(permits, ADMISSION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "Too many bytes in flight");
+                return;
+            }
+            try {
+                transform(exchange, plan, compiled, permits);
+            } finally {
+                inFlightBytes.release(permits);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Malformed Content-Length");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /** Runs {@code compiled} when the transform came from the registry, so its statistics stay complete. */
+    private void transform(HttpExchange exchange, TransformPlan plan, TransformSpec.CompiledTransform compiled, int length) throws IOException {
+        Consumer<JsonNode> operations = compiled != null ? compiled::apply : plan::apply;
+        TransformResultCache cache = resultCache;
+        if (cache != null) {
+            transformCached(exchange, plan, compiled, operations, length, cache);
+            return;
+        }
+        JsonNode jsonNode;
+        try (InputStream body = exchange.getRequestBody()) {
+            jsonNode = JsonBytes.read(body.readNBytes(length));
+            operations.accept(jsonNode);
+        } catch (JsonProcessingException e) {
+            sendError(exchange, 400, "Malformed JSON: " + e.getOriginalMessage());
+            return;
+        } catch (RuntimeException e) {
+            transformFailed(exchange, e);
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            JsonBytes.write(jsonNode, out);
+        }
+    }
+
+    private void transformCached(HttpExchange exchange, TransformPlan plan, TransformSpec.CompiledTransform compiled,
+                                 Consumer<JsonNode> operations, int length, TransformResultCache cache) throws IOException {
+        ByteBuffer result;
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] input = body.readNBytes(length);
+            boolean[] ran = new boolean[1];
+            result = cache.transform(plan, input, 0, input.length, jsonNode -> {
+                ran[0] = true;
+                operations.accept(jsonNode);
+            });
+            if (!ran[0] && compiled != null) {
+                compiled.recordCacheHit();
+            }
+        } catch (JsonProcessingException e) {
+            sendError(exchange, 400, "Malformed JSON: " + e.getOriginalMessage());
+            return;
+        } catch (RuntimeException e) {
+            transformFailed(exchange, e);
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, result.remaining());
+        try (OutputStream out = exchange.getResponseBody();
+             WritableByteChannel channel = Channels.newChannel(out)) {
+            channel.write(result);
+        }
+    }
+
+    /** Exception messages can quote the document or internals, so they go to the server log, not the client. */
+    private static void transformFailed(HttpExchange exchange, RuntimeException e) throws IOException {
+        LOG.log(System.Logger.Level.WARNING, "Transform " + exchange.getRequestURI().getPath() + " failed", e);
+        sendError(exchange, 422, "Transform failed");
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
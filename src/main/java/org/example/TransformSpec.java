@@ -0,0 +1,217 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named {@link TransformPlan}s compiled from a JSON spec. The spec uses the operation names of
+ * {@link Main#parsePlan} with named arguments and dotted paths:
+ * <pre>
+ * {"plans": {"positions": [
+ *     {"op": "removeFieldOfListByPathAndName", "path": "policy.rules", "field": "tmp"},
+ *     {"op": "addPositionByPath", "path": "policy.rules", "field": "position"}]}}
+ * </pre>
+ * Everything is validated and compiled when the spec is loaded, so applying a plan runs the plan's
+ * pre-built operations with pre-compiled paths and never looks at the spec again.
+ */
+public final class TransformSpec {
+
+    private static final Map<String, List<String>> OPERATIONS = new LinkedHashMap<>();
+
+    static {
+        OPERATIONS.put("removeFieldOfListByPathAndName", List.of("path", "field"));
+        OPERATIONS.put("removeFieldByPathAndName", List.of("path", "field"));
+        OPERATIONS.put("addAFieldByPath", List.of("path", "key", "value"));
+        OPERATIONS.put("addPositionByPath", List.of("path", "field"));
+        OPERATIONS.put("addBooleanFieldToArrayField", List.of("path", "field", "value"));
+        OPERATIONS.put("addStringFieldToArrayField", List.of("path", "field", "value"));
+        OPERATIONS.put("convertEmptyStringFieldToEmptyMap", List.of("path", "field1", "field2"));
+        OPERATIONS.put("cleanFieldOfTwoEmptyFields", List.of("path", "fieldOfTwo", "nestedFirst", "nestedSecond"));
+        OPERATIONS.put("cleanArrayFieldIfArrayIsEmpty", List.of("path", "path2", "field"));
+    }
+
+    /** A compiled plan plus the cost of running it. */
+    public static final class CompiledTransform {
+        private final String name;
+        private final TransformPlan plan;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder executionNanos = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+
+        CompiledTransform(String name, TransformPlan plan) {
+            this.name = name;
+            this.plan = plan;
+        }
+
+        public void apply(JsonNode jsonNode) {
+            long start = System.nanoTime();
+            try {
+                plan.apply(jsonNode);
+            } finally {
+                executionNanos.add(System.nanoTime() - start);
+                executions.increment();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public TransformPlan getPlan() {
+            return plan;
+        }
+
+        public long getExecutions() {
+            return executions.sum();
+        }
+
+        /** Documents answered from a {@link TransformResultCache} without running the plan. */
+        public long getCacheHits() {
+            return cacheHits.sum();
+        }
+
+        void recordCacheHit() {
+            cacheHits.increment();
+        }
+
+        public double averageNanosPerDocument() {
+            long count = executions.sum();
+            return count == 0 ? 0 : (double) executionNanos.sum() / count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d documents, %.1f us/document, %d cache hits, %s", name, getExecutions(),
+                    averageNanosPerDocument() / 1e3, getCacheHits(), plan);
+        }
+    }
+
+    private final Map<String, CompiledTransform> transforms;
+    private final long compileNanos;
+
+    private TransformSpec(Map<String, CompiledTransform> transforms, long compileNanos) {
+        this.transforms = transforms;
+        this.compileNanos = compileNanos;
+    }
+
+    public static TransformSpec load(Path path) throws IOException {
+        return parse(Files.readAllBytes(path));
+    }
+
+    /** @throws IllegalArgumentException naming the offending plan and operation when the spec is invalid */
+    public static TransformSpec parse(byte[] json) throws IOException {
+        long start = System.nanoTime();
+        JsonNode spec = JsonBytes.read(json);
+        JsonNode plans = spec.get("plans");
+        if (plans == null || !plans.isObject()) {
+            throw new IllegalArgumentException("Spec must be an object with a \"plans\" object");
+        }
+        Map<String, CompiledTransform> transforms = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = plans.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            transforms.put(entry.getKey(), new CompiledTransform(entry.getKey(), compilePlan(entry.getKey(), entry.getValue())));
+        }
+        return new TransformSpec(Collections.unmodifiableMap(transforms), System.nanoTime() - start);
+    }
+
+    private static TransformPlan compilePlan(String name, JsonNode operations) {
+        if (!operations.isArray()) {
+            throw new IllegalArgumentException("plans." + name + ": expected an array of operations");
+        }
+        TransformPlan.Builder builder = TransformPlan.builder();
+        for (int i = 0; i < operations.size(); i++) {
+            String location = "plans." + name + "[" + i + "]";
+            JsonNode operation = operations.get(i);
+            JsonNode op = operation.get("op");
+            List<String> arguments = op == null ? null : OPERATIONS.get(op.asText());
+            if (arguments == null) {
+                throw new IllegalArgumentException(location + ": unknown op " + op + ", expected one of " + OPERATIONS.keySet());
+            }
+            Set<String> present = new HashSet<>();
+            operation.fieldNames().forEachRemaining(present::add);
+            present.remove("op");
+            if (!present.equals(new HashSet<>(arguments))) {
+                throw new IllegalArgumentException(location + ": " + op.asText() + " takes " + arguments + " but got " + present);
+            }
+            compileOperation(builder, location, op.asText(), operation);
+        }
+        return builder.build();
+    }
+
+    private static void compileOperation(TransformPlan.Builder builder, String location, String op, JsonNode operation) {
+        JsonPath path = JsonPath.parse(text(location, operation, "path"));
+        switch (op) {
+            case "removeFieldOfListByPathAndName":
+                builder.removeFieldOfListByPathAndName(path, text(location, operation, "field"));
+                break;
+            case "removeFieldByPathAndName":
+                builder.removeFieldByPathAndName(path, text(location, operation, "field"));
+                break;
+            case "addAFieldByPath":
+                builder.addAFieldByPath(path, text(location, operation, "key"), text(location, operation, "value"));
+                break;
+            case "addPositionByPath":
+                builder.addPositionByPath(path, text(location, operation, "field"));
+                break;
+            case "addBooleanFieldToArrayField": {
+                JsonNode value = operation.get("value");
+                if (!value.isBoolean()) {
+                    throw new IllegalArgumentException(location + ": \"value\" must be true or false");
+                }
+                builder.addFieldToArrayFieldByPathAndFieldName(path, text(location, operation, "field"), value.booleanValue());
+                break;
+            }
+            case "addStringFieldToArrayField":
+                builder.addFieldToArrayFieldByPathAndFieldName(path, text(location, operation, "field"), text(location, operation, "value"));
+                break;
+            case "convertEmptyStringFieldToEmptyMap":
+                builder.convertEmptyStringFieldToEmptyMap(path, text(location, operation, "field1"), text(location, operation, "field2"));
+                break;
+            case "cleanFieldOfTwoEmptyFields":
+                builder.cleanFieldOfTwoEmptyFields(path, text(location, operation, "fieldOfTwo"),
+                        text(location, operation, "nestedFirst"), text(location, operation, "nestedSecond"));
+                break;
+            case "cleanArrayFieldIfArrayIsEmpty":
+                builder.cleanArrayFieldIfArrayIsEmpty(path, JsonPath.parse(text(location, operation, "path2")), text(location, operation, "field"));
+                break;
+            default:
+                throw new IllegalStateException(op);
+        }
+    }
+
+    private static String text(String location, JsonNode operation, String argument) {
+        JsonNode value = operation.get(argument);
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException(location + ": \"" + argument + "\" must be a string");
+        }
+        return value.textValue();
+    }
+
+    public CompiledTransform get(String name) {
+        return transforms.get(name);
+    }
+
+    public Map<String, CompiledTransform> transforms() {
+        return transforms;
+    }
+
+    public long getCompileNanos() {
+        return compileNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TransformSpec%s compiled in %.3f ms", transforms.keySet(), compileNanos / 1e6);
+    }
+}
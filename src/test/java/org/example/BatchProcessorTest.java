@@ -0,0 +1,57 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchProcessorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testProcessDirectory() throws IOException, InterruptedException {
+        Path inputDir = Files.createDirectories(tempDir.resolve("in"));
+        Path outputDir = tempDir.resolve("out");
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(inputDir.resolve("policy-" + i + ".json"),
+                    "{\"policy\":{\"rules\":[{\"name\":\"r" + i + "\",\"details\":{\"author\":\"\",\"publisher\":\"\"},\"ports\":[]}]}}");
+        }
+        Files.writeString(inputDir.resolve("broken.json"), "{\"policy\":");
+        Files.writeString(inputDir.resolve("ignored.txt"), "not json");
+
+        TransformPlan plan = Main.parsePlan(List.of(
+                "cleanFieldOfTwoEmptyFields:policy.rules:details:author:publisher",
+                "cleanArrayFieldIfArrayIsEmpty:policy.rules::ports",
+                "addPositionByPath:policy.rules:position"));
+        BatchProcessor.Result result = new BatchProcessor(plan, 3).process(inputDir, outputDir);
+
+        assertEquals(20, result.getFiles());
+        assertEquals(1, result.getFailures());
+        assertTrue(result.getBytesRead() > 0);
+        assertFalse(Files.exists(outputDir.resolve("broken.json")));
+        assertFalse(Files.exists(outputDir.resolve("ignored.txt")));
+        try (var outputs = Files.list(outputDir)) {
+            assertEquals(20, outputs.count());
+        }
+
+        JsonNode output = objectMapper.readTree(outputDir.resolve("policy-7.json").toFile());
+        assertEquals(objectMapper.readTree("{\"policy\":{\"rules\":[{\"name\":\"r7\",\"position\":0}]}}"), output);
+    }
+
+    @Test
+    public void testParsePlanRejectsUnknownOperation() {
+        assertThrows(IllegalArgumentException.class, () -> Main.parsePlan(List.of("addPositionByPath:policy.rules")));
+        assertThrows(IllegalArgumentException.class, () -> Main.parsePlan(List.of("explode:policy")));
+    }
+}
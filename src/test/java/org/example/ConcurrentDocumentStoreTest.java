@@ -0,0 +1,112 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentDocumentStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode policy(int rules) throws Exception {
+        StringBuilder json = new StringBuilder("{\"policy\":{\"name\":\"p\",\"rules\":[");
+        for (int i = 0; i < rules; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"name\":\"r").append(i).append("\"}");
+        }
+        return objectMapper.readTree(json.append("]}}").toString());
+    }
+
+    @Test
+    public void testSnapshotsAreIsolated() throws Exception {
+        ConcurrentDocumentStore store = new ConcurrentDocumentStore(policy(2));
+        JsonNode before = store.snapshot();
+
+        store.modify(JsonPath.parse("policy.rules.1"), rule -> JsonNodeUtils.addAFieldByPath(rule, JsonPath.ROOT, "owner", "alice"));
+
+        assertNull(before.get("policy").get("rules").get(1).get("owner"));
+        assertEquals("alice", store.get(JsonPath.parse("policy.rules.1.owner")).asText());
+        // untouched subtrees are shared with the previous snapshot
+        assertSame(before.get("policy").get("rules").get(0), store.snapshot().get("policy").get("rules").get(0));
+        assertEquals(1, store.updates());
+    }
+
+    @Test
+    public void testWritesBetweenSnapshotsArePublishedTogether() throws Exception {
+        ConcurrentDocumentStore store = new ConcurrentDocumentStore(policy(3));
+        JsonNode before = store.snapshot();
+
+        store.modify(JsonPath.parse("policy.rules.0"), rule -> JsonNodeUtils.addAFieldByPath(rule, JsonPath.ROOT, "owner", "alice"));
+        store.modify(JsonPath.parse("policy.rules.2"), rule -> JsonNodeUtils.addAFieldByPath(rule, JsonPath.ROOT, "owner", "bob"));
+        JsonNode after = store.snapshot();
+
+        assertSame(after, store.snapshot());
+        assertEquals("alice", after.get("policy").get("rules").get(0).get("owner").asText());
+        assertEquals("bob", after.get("policy").get("rules").get(2).get("owner").asText());
+        assertEquals(policy(3), before);
+        assertSame(before.get("policy").get("rules").get(1), after.get("policy").get("rules").get(1));
+        assertEquals(1, store.snapshots());
+    }
+
+    @Test
+    public void testApplyPlan() throws Exception {
+        ConcurrentDocumentStore store = new ConcurrentDocumentStore(policy(3));
+
+        store.apply(JsonPath.parse("policy"), TransformPlan.builder().addPositionByPath(new String[]{"rules"}, "position").build());
+
+        assertEquals(2, store.get(JsonPath.parse("policy.rules.2.position")).asInt());
+    }
+
+    @Test
+    public void testConcurrentWritersKeepEveryUpdate() throws Exception {
+        int rules = 16;
+        int rounds = 200;
+        ConcurrentDocumentStore store = new ConcurrentDocumentStore(policy(rules));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < rounds; i++) {
+                        JsonPath rule = JsonPath.parse("policy.rules." + ((i + thread) % rules));
+                        String field = "t" + thread + "-" + i;
+                        store.modify(rule, node -> JsonNodeUtils.addAFieldByPath(node, JsonPath.ROOT, field, "x"));
+                        // an overlapping writer on the enclosing object
+                        store.modify(JsonPath.parse("policy"), node -> JsonNodeUtils.addAFieldByPath(node, JsonPath.ROOT, field, "x"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        JsonNode policy = store.get(JsonPath.parse("policy"));
+        int ruleFields = 0;
+        for (JsonNode rule : policy.get("rules")) {
+            ruleFields += rule.size() - 1;
+        }
+        assertEquals(4 * rounds, ruleFields);
+        assertEquals(4 * rounds + 2, policy.size());
+        assertEquals(8L * rounds, store.updates());
+    }
+
+    @Test
+    public void testMissingPrefix() throws Exception {
+        ConcurrentDocumentStore store = new ConcurrentDocumentStore(policy(1));
+
+        assertThrows(IllegalArgumentException.class, () -> store.modify(JsonPath.parse("policy.rules.5"), node -> { }));
+        assertThrows(IllegalArgumentException.class, () -> store.modify(JsonPath.parse("policy.name"), node -> { }));
+        assertNull(store.get(JsonPath.parse("policy.rules.x")));
+    }
+}
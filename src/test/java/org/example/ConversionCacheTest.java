@@ -0,0 +1,96 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConversionCacheTest {
+
+    private static final String POLICY = "{\"policy\":{\"rules\":[{\"ports\":[\"80\",\"443\"]},{\"ports\":[\"22\"]},"
+            + "{\"ports\":[\"80\",\"443\"]},{\"ports\":[\"80\",\"443\"]}]}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testRepeatedContentIsConvertedOnce() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        ConversionCache cache = new ConversionCache(values -> {
+            calls.incrementAndGet();
+            return String.join("|", values);
+        }, 100);
+
+        JsonNode first = objectMapper.readTree(POLICY);
+        JsonNode second = objectMapper.readTree(POLICY);
+        JsonNodeUtils.convertFieldByPath(first, new String[]{"policy", "rules", "ports"}, cache);
+        JsonNodeUtils.convertFieldByPath(second, JsonPath.parse("policy.rules.ports"), cache);
+
+        assertEquals(2, calls.get());
+        assertEquals(6, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(0.75, cache.hitRate());
+        assertEquals("80|443", second.get("policy").get("rules").get(3).get("ports").textValue());
+        assertEquals("22", first.get("policy").get("rules").get(1).get("ports").textValue());
+    }
+
+    @Test
+    public void testEvictsBySizeAndWeight() {
+        ConversionCache bySize = new ConversionCache(values -> String.join("", values), 2);
+        bySize.apply(List.of("a"));
+        bySize.apply(List.of("b"));
+        bySize.apply(List.of("a"));
+        bySize.apply(List.of("c"));
+
+        assertEquals(2, bySize.size());
+        assertEquals(1, bySize.evictions());
+        bySize.apply(List.of("a"));
+        assertEquals(2, bySize.hits());
+
+        ConversionCache byWeight = new ConversionCache(values -> String.join("", values), 100, 10);
+        byWeight.apply(List.of("abc"));
+        byWeight.apply(List.of("def"));
+        assertEquals(12, ConversionCache.weigh(List.of("abc", "def"), "abcdef"));
+        assertEquals(6, byWeight.weight());
+        byWeight.apply(List.of("ghi"));
+        assertEquals(1, byWeight.size());
+        assertEquals(6, byWeight.weight());
+    }
+
+    @Test
+    public void testLargeCacheIsSegmentedAndStaysWithinLimits() throws Exception {
+        assertEquals(1, new ConversionCache(values -> "", 100).segmentCount());
+        ConversionCache cache = new ConversionCache(values -> String.join(",", values), 1024);
+        assertEquals(ConversionCache.MAX_SEGMENTS, cache.segmentCount());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        String port = Integer.toString(i % 2000);
+                        assertEquals(port + ",443", cache.apply(List.of(port, "443")));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(20000, cache.hits() + cache.misses());
+        assertTrue(cache.size() <= 1024);
+        assertTrue(cache.evictions() > 0 && cache.evictions() <= cache.misses() - cache.size());
+    }
+}
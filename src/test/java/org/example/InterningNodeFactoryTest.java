@@ -0,0 +1,56 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InterningNodeFactoryTest {
+
+    private static final String POLICY = "{\"policy\":{\"rules\":[{\"protocol\":\"tcp\",\"port\":443},{\"protocol\":\"tcp\",\"port\":443}]}}";
+
+    @Test
+    public void testSharesLeavesAcrossDocuments() throws IOException {
+        InterningNodeFactory factory = new InterningNodeFactory();
+        ObjectMapper mapper = factory.newObjectMapper();
+
+        JsonNode first = mapper.readTree(POLICY);
+        JsonNode second = mapper.readTree(POLICY);
+
+        assertEquals(new ObjectMapper().readTree(POLICY), first);
+        assertSame(first.at("/policy/rules/0/protocol"), second.at("/policy/rules/1/protocol"));
+        assertSame(first.at("/policy/rules/0/port"), second.at("/policy/rules/1/port"));
+        assertEquals(1, factory.size());
+        assertEquals(1, factory.misses());
+        assertEquals(7, factory.hits());
+        assertEquals(3 * (InterningNodeFactory.LEAF_NODE_BYTES + InterningNodeFactory.stringBytes("tcp"))
+                + 4 * InterningNodeFactory.LEAF_NODE_BYTES, factory.bytesSaved());
+    }
+
+    @Test
+    public void testEditsThroughJsonNodeUtilsUseTheFactory() throws IOException {
+        InterningNodeFactory factory = new InterningNodeFactory();
+        JsonNode jsonNode = factory.newObjectMapper().readTree(POLICY);
+
+        JsonNodeUtils.addFieldToArrayFieldByPathAndFieldName(jsonNode, new String[]{"policy", "rules"}, "protocol", "udp");
+
+        assertSame(jsonNode.at("/policy/rules/0/protocol"), jsonNode.at("/policy/rules/1/protocol"));
+    }
+
+    @Test
+    public void testTableIsBounded() {
+        InterningNodeFactory factory = new InterningNodeFactory(2, 4);
+
+        factory.textNode("a");
+        factory.textNode("b");
+        factory.textNode("c");
+        factory.textNode("toolong");
+
+        assertEquals(2, factory.size());
+        assertNotSame(factory.textNode("c"), factory.textNode("c"));
+        assertSame(factory.textNode("a"), factory.textNode("a"));
+    }
+}
@@ -0,0 +1,162 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonArrayIndexTest {
+
+    private static final String RULES = "{\"policy\":{\"rules\":[{\"name\":\"r1\"},{\"name\":\"r2\"},{\"name\":\"r3\"},{\"name\":\"r2\",\"dup\":true}]}}";
+    private static final String[] PATH = {"policy", "rules"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testGetAndPosition() throws JsonProcessingException {
+        JsonNode jsonNode = objectMapper.readTree(RULES);
+        JsonArrayIndex index = JsonArrayIndex.build(jsonNode, PATH, "name");
+
+        assertEquals(3, index.size());
+        assertEquals(2, index.positionOf("r3"));
+        assertSame(jsonNode.get("policy").get("rules").get(1), index.get("r2"));
+        assertNull(index.get("missing"));
+        assertFalse(index.contains("missing"));
+    }
+
+    @Test
+    public void testAddUpdateRemove() throws JsonProcessingException {
+        JsonNode jsonNode = objectMapper.readTree(RULES);
+        JsonArrayIndex index = JsonArrayIndex.build(jsonNode, PATH, "name");
+
+        index.add(objectMapper.createObjectNode().put("name", "r4"));
+        assertEquals(4, index.positionOf("r4"));
+
+        assertTrue(index.update("r1", rule -> rule.put("enabled", true)));
+        assertTrue(jsonNode.get("policy").get("rules").get(0).get("enabled").asBoolean());
+        assertFalse(index.update("missing", rule -> rule.put("enabled", true)));
+
+        assertNotNull(index.remove("r1"));
+        assertEquals(0, index.positionOf("r2"));
+        assertEquals(1, index.positionOf("r3"));
+        assertEquals(3, index.positionOf("r4"));
+
+        index.remove("r2");
+        assertTrue(index.get("r2").get("dup").asBoolean());
+        assertEquals(1, index.positionOf("r2"));
+    }
+
+    @Test
+    public void testVerifiesHitsAfterRawArrayEdits() throws JsonProcessingException {
+        JsonNode jsonNode = objectMapper.readTree(RULES);
+        JsonArrayIndex index = JsonArrayIndex.build(jsonNode, PATH, "name");
+
+        ArrayNode rules = (ArrayNode) JsonNodeUtils.getJsonNodeByJsonNodeAndPath(jsonNode, PATH);
+        rules.remove(0);
+        rules.insertObject(0).put("name", "r0");
+        JsonNodeUtils.addPositionByPath(jsonNode, PATH, "position");
+
+        assertEquals(1, index.positionOf("r2"));
+        assertEquals(1, index.get("r3").get("position").asInt() - 1);
+        assertNull(index.get("r1"));
+    }
+
+    @Test
+    public void testJoin() throws JsonProcessingException {
+        JsonNode jsonNode = objectMapper.readTree(RULES);
+        JsonArrayIndex index = JsonArrayIndex.build(jsonNode, PATH, "name");
+
+        int matched = index.join(Map.of("r1", true, "r3", false, "missing", true), "readOnly");
+
+        assertEquals(2, matched);
+        assertTrue(index.get("r1").get("readOnly").asBoolean());
+        assertFalse(index.get("r3").get("readOnly").asBoolean());
+        assertNull(index.get("r2").get("readOnly"));
+    }
+
+    @Test
+    public void testKeysMovedWithoutSizeChangeShowUpAfterAStaleHit() throws JsonProcessingException {
+        JsonNode jsonNode = objectMapper.readTree(RULES);
+        JsonArrayIndex index = JsonArrayIndex.build(jsonNode, PATH, "name");
+
+        ArrayNode rules = (ArrayNode) jsonNode.get("policy").get("rules");
+        rules.remove(0);
+        rules.addObject().put("name", "r5");
+
+        // A miss trusts the unchanged size; the stale hit on r2 then rebuilds the index.
+        assertEquals(-1, index.positionOf("r5"));
+        assertEquals(0, index.positionOf("r2"));
+        assertEquals(3, index.positionOf("r5"));
+        assertNull(index.get("r1"));
+
+        rules.addObject().put("name", "r6");
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testJoinEnrichesEveryDuplicate() throws JsonProcessingException {
+        JsonNode jsonNode = objectMapper.readTree(RULES);
+        JsonArrayIndex index = JsonArrayIndex.build(jsonNode, PATH, "name");
+        index.add(objectMapper.createObjectNode().put("name", "r2"));
+
+        assertEquals(3, index.join(Map.of("r2", true), "readOnly"));
+
+        ArrayNode rules = (ArrayNode) jsonNode.get("policy").get("rules");
+        assertTrue(rules.get(1).get("readOnly").asBoolean());
+        assertTrue(rules.get(3).get("readOnly").asBoolean());
+        assertTrue(rules.get(4).get("readOnly").asBoolean());
+        assertNull(rules.get(0).get("readOnly"));
+    }
+
+    @Test
+    public void testJoinAndUpdateAreRecorded() throws JsonProcessingException {
+        JsonNode jsonNode = objectMapper.readTree(RULES);
+        JsonArrayIndex index = JsonArrayIndex.build(jsonNode, PATH, "name");
+
+        ArrayNode patch;
+        try (JsonPatchRecorder recorder = JsonPatchRecorder.start(jsonNode)) {
+            index.join(Map.of("r3", false), "readOnly");
+            index.update("r1", rule -> rule.put("enabled", true).remove("name"));
+            patch = recorder.toPatch();
+        }
+
+        assertEquals(objectMapper.readTree("[{\"op\":\"add\",\"path\":\"/policy/rules/2/readOnly\",\"value\":false},"
+                + "{\"op\":\"remove\",\"path\":\"/policy/rules/0/name\"},"
+                + "{\"op\":\"add\",\"path\":\"/policy/rules/0/enabled\",\"value\":true}]"), patch);
+        assertNull(index.get("r1"));
+    }
+
+    @Test
+    public void testAddAndRemoveAreRecorded() throws JsonProcessingException {
+        JsonNode jsonNode = objectMapper.readTree(RULES);
+        JsonArrayIndex index = JsonArrayIndex.build(jsonNode, PATH, "name");
+
+        ArrayNode patch;
+        try (JsonPatchRecorder recorder = JsonPatchRecorder.start(jsonNode)) {
+            index.remove("r1");
+            index.add(objectMapper.createObjectNode().put("name", "r4"));
+            index.update("r3", rule -> rule.put("enabled", true));
+            JsonNodeUtils.addPositionByPath(jsonNode, PATH, "position");
+            patch = recorder.toPatch();
+        }
+
+        assertEquals(objectMapper.readTree("[{\"op\":\"remove\",\"path\":\"/policy/rules/0\"},"
+                + "{\"op\":\"add\",\"path\":\"/policy/rules/3\",\"value\":{\"name\":\"r4\"}},"
+                + "{\"op\":\"add\",\"path\":\"/policy/rules/1/enabled\",\"value\":true},"
+                + "{\"op\":\"add\",\"path\":\"/policy/rules/0/position\",\"value\":0},"
+                + "{\"op\":\"add\",\"path\":\"/policy/rules/1/position\",\"value\":1},"
+                + "{\"op\":\"add\",\"path\":\"/policy/rules/2/position\",\"value\":2},"
+                + "{\"op\":\"add\",\"path\":\"/policy/rules/3/position\",\"value\":3}]"), patch);
+    }
+
+    @Test
+    public void testBuildRejectsNonArray() throws JsonProcessingException {
+        JsonNode jsonNode = objectMapper.readTree(RULES);
+        assertThrows(IllegalArgumentException.class, () -> JsonArrayIndex.build(jsonNode, new String[]{"policy"}, "name"));
+    }
+}
@@ -0,0 +1,86 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonBytesTest {
+
+    private static final String JSON = "{\"policy\":{\"rules\":[{\"name\":\"r\\u00e9gle\"},{\"name\":\"r2\"}]}}";
+    private static final String[] RULES = {"policy", "rules"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode expected() throws IOException {
+        JsonNode expected = objectMapper.readTree(JSON);
+        JsonNodeUtils.addPositionByPath(expected, RULES, "position");
+        return expected;
+    }
+
+    @Test
+    public void testTransformFromBytesToStream() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonBytes.transform(JSON.getBytes(StandardCharsets.UTF_8), node -> JsonNodeUtils.addPositionByPath(node, RULES, "position"), out);
+
+        assertEquals(expected(), objectMapper.readTree(out.toByteArray()));
+    }
+
+    @Test
+    public void testTransformFromDirectBufferToReusedBuffer() throws IOException {
+        byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        TransformPlan plan = TransformPlan.builder().addPositionByPath(RULES, "position").build();
+
+        ByteBuffer first = JsonBytes.transformToBuffer(direct, plan::apply);
+        assertEquals(0, direct.position());
+        byte[] firstBytes = new byte[first.remaining()];
+        first.get(firstBytes);
+        assertEquals(expected(), objectMapper.readTree(firstBytes));
+
+        ByteBufferOutputStream pooled = JsonBytes.acquireBuffer();
+        assertSame(pooled, JsonBytes.acquireBuffer());
+    }
+
+    @Test
+    public void testReadFromSlicedHeapBufferAndStream() throws IOException {
+        byte[] padded = ("xx" + JSON + "yy").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer slice = ByteBuffer.wrap(padded, 2, padded.length - 4).slice();
+
+        assertEquals(objectMapper.readTree(JSON), JsonBytes.read(slice));
+        assertEquals(objectMapper.readTree(JSON), JsonBytes.read(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void testReadLeavesStreamOpen() throws IOException {
+        boolean[] closed = new boolean[1];
+        ByteArrayInputStream in = new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        assertEquals(objectMapper.readTree(JSON), JsonBytes.read(in));
+        assertFalse(closed[0]);
+        assertTrue(JsonBytes.read(new ByteArrayInputStream(new byte[0])).isMissingNode());
+    }
+
+    @Test
+    public void testStreamingTransformerFromBytes() throws IOException {
+        TransformPlan plan = TransformPlan.builder().addPositionByPath(RULES, "position").build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new StreamingTransformer(plan).transform(ByteBuffer.wrap(JSON.getBytes(StandardCharsets.UTF_8)), out);
+
+        assertEquals(expected(), objectMapper.readTree(out.toByteArray()));
+    }
+}
@@ -0,0 +1,100 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonNodeUtilsMetricsTest {
+
+    private static final String POLICY = "{\"policy\":{\"rules\":[{\"name\":\"r1\",\"tmp\":1},{\"name\":\"r2\"},{\"name\":\"r3\",\"tmp\":3}]}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    public void tearDown() {
+        JsonNodeUtils.setListener(null);
+    }
+
+    @Test
+    public void testRecordsPerMethodAndPath() throws IOException {
+        JsonNodeUtilsMetrics metrics = JsonNodeUtilsMetrics.install();
+        JsonNode jsonNode = objectMapper.readTree(POLICY);
+
+        JsonNodeUtils.removeFieldOfListByPathAndName(jsonNode, new String[]{"policy", "rules"}, "tmp");
+        JsonNodeUtils.removeFieldOfListByPathAndName(jsonNode, JsonPath.parse("policy.rules"), "tmp");
+        JsonNodeUtils.addAStringFieldRootLevel(jsonNode, "owner", "me");
+
+        List<JsonNodeUtilsMetrics.Snapshot> snapshots = metrics.snapshot();
+        assertEquals(2, snapshots.size());
+        JsonNodeUtilsMetrics.Snapshot rootLevel = snapshots.get(0);
+        assertEquals("addAStringFieldRootLevel", rootLevel.getMethod());
+        assertEquals(JsonPath.ROOT, rootLevel.getPath());
+        JsonNodeUtilsMetrics.Snapshot removal = snapshots.get(1);
+        assertEquals(JsonPath.parse("policy.rules"), removal.getPath());
+        assertEquals(2, removal.getCount());
+        assertEquals(10, removal.getNodesVisited());
+        assertEquals(2, removal.getElementsModified());
+        assertTrue(removal.getP50Nanos() <= removal.getP99Nanos());
+        assertTrue(metrics.dump().contains("removeFieldOfListByPathAndName path=policy.rules count=2"));
+
+        metrics.reset();
+        assertTrue(metrics.snapshot().isEmpty());
+    }
+
+    @Test
+    public void testRecordsFusedPlanTraversals() throws IOException {
+        JsonNodeUtilsMetrics metrics = JsonNodeUtilsMetrics.install();
+        TransformPlan.builder()
+                .removeFieldOfListByPathAndName(new String[]{"policy", "rules"}, "tmp")
+                .addPositionByPath(new String[]{"policy", "rules"}, "position")
+                .build()
+                .apply(objectMapper.readTree(POLICY));
+
+        List<JsonNodeUtilsMetrics.Snapshot> snapshots = metrics.snapshot();
+        assertEquals(1, snapshots.size());
+        assertEquals(TransformPlan.OPERATION_NAME, snapshots.get(0).getMethod());
+        assertEquals(3, snapshots.get(0).getElementsModified());
+    }
+
+    @Test
+    public void testListenerGetsPathSegmentsWithoutCompiling() throws IOException {
+        List<String> methods = new ArrayList<>();
+        List<List<String>> paths = new ArrayList<>();
+        JsonNodeUtils.setListener((method, path, elapsedNanos, nodesVisited, elementsModified) -> {
+            methods.add(method);
+            paths.add(List.copyOf(path));
+        });
+        JsonNode jsonNode = objectMapper.readTree(POLICY);
+        String[] uncached = {"policy", "not-compiled-" + System.nanoTime()};
+        JsonPath missing = JsonPath.parse("policy.missing");
+        int cached = JsonPath.cacheSize();
+
+        JsonNodeUtils.removeFieldByPathAndName(jsonNode, uncached, "tmp");
+        JsonNodeUtils.tryAddPositionByPath(jsonNode, missing, "position");
+        JsonNodeUtils.getIntArrayByPath(jsonNode, new String[]{"policy", "rules"});
+        JsonNodeUtils.getSListFieldViewByPath(jsonNode, new String[]{"policy", "rules"});
+
+        assertEquals(cached, JsonPath.cacheSize());
+        assertEquals(List.of("removeFieldByPathAndName", "tryAddPositionByPath", "getIntArrayByPath", "getSListFieldViewByPath"), methods);
+        assertEquals(List.of(uncached), paths.get(0));
+        assertEquals(List.of("policy", "missing"), paths.get(1));
+    }
+
+    @Test
+    public void testPercentileUsesBucketUpperBound() {
+        long[] counts = new long[64];
+        counts[JsonNodeUtilsMetrics.bucket(100)] = 99;
+        counts[JsonNodeUtilsMetrics.bucket(5000)] = 1;
+
+        assertEquals(127, JsonNodeUtilsMetrics.percentile(counts, 100, 0.50));
+        assertEquals(127, JsonNodeUtilsMetrics.percentile(counts, 100, 0.99));
+        assertEquals(8191, JsonNodeUtilsMetrics.percentile(counts, 100, 1.0));
+    }
+}
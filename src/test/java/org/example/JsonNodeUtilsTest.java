@@ -198,6 +198,20 @@ public class JsonNodeUtilsTest {
         }
     }
 
+    @Test
+    public void testRemoveAFieldByPathFieldsAndNameFieldTwoIsLIstMissingIntermediateThrows() throws JsonProcessingException {
+        JsonNode jsonNode = objectMapper.readTree("{\"foo\": {}, \"baz\": {\"bar\": [{\"name\": \"Alice\"}]}}");
+
+        assertThrows(NullPointerException.class,
+                () -> JsonNodeUtils.removeAFieldByPathFieldsAndNameFieldTwoIsLIst(jsonNode, new String[]{"foo", "bar"}, "age"));
+        assertThrows(NullPointerException.class,
+                () -> JsonNodeUtils.removeAFieldByPathFieldsAndNameFieldTwoIsLIst(jsonNode, JsonPath.compile("foo", "bar"), "age"));
+        assertThrows(NullPointerException.class, () -> JsonNodeUtils
+                .removeAFieldByPathFieldsAndNameFieldTwoIsLIstAndFieldToBeRemovedIsFarOneLayer(jsonNode, new String[]{"baz", "bar", "spec"}, "age"));
+        assertThrows(NullPointerException.class, () -> JsonNodeUtils
+                .removeAFieldByPathFieldsAndNameFieldTwoIsLIstAndFieldToBeRemovedIsFarOneLayer(jsonNode, JsonPath.compile("baz", "bar", "spec"), "age"));
+    }
+
     @Test
     public void testConvertFieldByPath() throws JsonProcessingException {
 
@@ -331,6 +345,32 @@ public class JsonNodeUtilsTest {
     }
 
 
+    @Test
+    public void testConvertEmptyStringFieldToEmptyMapReplacesWithEmptyObject() throws JsonProcessingException {
+        String jsonStr = "{\"rules\":[{\"profiles\":{\"group\":\"\"}},{\"profiles\":{\"group\":\"default\"}}]}";
+        JsonNode jsonNode = objectMapper.readTree(jsonStr);
+
+        String[] pathFields = {"rules"};
+        JsonNodeUtils.convertEmptyStringFieldToEmptyMap(pathFields, jsonNode, "profiles", "group");
+
+        String expectedStr = "{\"rules\":[{\"profiles\":{}},{\"profiles\":{\"group\":\"default\"}}]}";
+        assertEquals(objectMapper.readTree(expectedStr), jsonNode);
+    }
+
+    @Test
+    public void testConvertEmptyStringFieldToEmptyMapDoesNotShareEmptyObjects() throws JsonProcessingException {
+        String jsonStr = "{\"rules\":[{\"profiles\":{\"group\":\"\"}},{\"profiles\":{\"group\":\"\"}}]}";
+        JsonNode jsonNode = objectMapper.readTree(jsonStr);
+
+        JsonNodeUtils.convertEmptyStringFieldToEmptyMap(new String[]{"rules"}, jsonNode, "profiles", "group");
+
+        ObjectNode first = (ObjectNode) jsonNode.get("rules").get(0).get("profiles");
+        JsonNode second = jsonNode.get("rules").get(1).get("profiles");
+        assertNotSame(first, second);
+        first.put("group", "edited");
+        assertEquals(objectMapper.createObjectNode(), second);
+    }
+
     @Test
     public void testCleanFieldOfTwoEmptyFields() throws Exception {
         String jsonStr = "{\"books\": [{\"id\": 1, \"name\": \"book1\", \"details\": {\"author\": \"author1\", \"publisher\": \"publisher1\"}}, {\"id\": 2, \"name\": \"book2\", \"details\": {\"author\": \"\", \"publisher\": \"\"}}]}";
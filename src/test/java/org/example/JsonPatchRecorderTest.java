@@ -0,0 +1,119 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonPatchRecorderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testRecordsAddReplaceAndRemove() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree("{\"policy\":{\"rules\":[{\"name\":\"r1\",\"tmp\":1,\"position\":9},"
+                + "{\"name\":\"r2\",\"details\":{\"author\":\"\"}}],\"a/b\":{}}}");
+        JsonNode untouched = objectMapper.readTree("{\"other\":{}}");
+
+        ArrayNode patch;
+        try (JsonPatchRecorder recorder = JsonPatchRecorder.start(jsonNode)) {
+            JsonNodeUtils.removeFieldOfListByPathAndName(jsonNode, new String[]{"policy", "rules"}, "tmp");
+            JsonNodeUtils.addPositionByPath(jsonNode, new String[]{"policy", "rules"}, "position");
+            JsonNodeUtils.addAFieldByPath(jsonNode, new String[]{"policy", "a/b"}, "x~y", "z");
+            JsonNodeUtils.addAFieldByPath(untouched, new String[]{"other"}, "k", "v");
+            patch = recorder.toPatch();
+        }
+
+        assertEquals(objectMapper.readTree("["
+                + "{\"op\":\"remove\",\"path\":\"/policy/rules/0/tmp\"},"
+                + "{\"op\":\"replace\",\"path\":\"/policy/rules/0/position\",\"value\":0},"
+                + "{\"op\":\"add\",\"path\":\"/policy/rules/1/position\",\"value\":1},"
+                + "{\"op\":\"add\",\"path\":\"/policy/a~1b/x~0y\",\"value\":\"z\"}]"), patch);
+        assertFalse(JsonPatchRecorder.isRecording());
+    }
+
+    @Test
+    public void testRecordsNewContainersAndPlans() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree("{\"rules\":[{\"details\":{\"author\":\"\"}}]}");
+
+        try (JsonPatchRecorder recorder = JsonPatchRecorder.start(jsonNode)) {
+            TransformPlan.builder()
+                    .convertEmptyStringFieldToEmptyMap(new String[]{"rules"}, "details", "author")
+                    .build()
+                    .apply(jsonNode);
+            JsonNodeUtils.addAFieldByPath(jsonNode.get("rules").get(0), new String[]{"details"}, "author", "me");
+
+            assertEquals(objectMapper.readTree("["
+                    + "{\"op\":\"replace\",\"path\":\"/rules/0/details\",\"value\":{}},"
+                    + "{\"op\":\"add\",\"path\":\"/rules/0/details/author\",\"value\":\"me\"}]"), recorder.toPatch());
+        }
+    }
+
+    @Test
+    public void testStartDoesNotWalkTheDocument() {
+        ObjectNode jsonNode = JsonNodeFactory.instance.objectNode();
+        ArrayNode rules = jsonNode.putObject("policy").putArray("rules");
+        for (int i = 0; i < 1000; i++) {
+            rules.addObject().putObject("details").put("author", "");
+        }
+
+        try (JsonPatchRecorder recorder = JsonPatchRecorder.start(jsonNode)) {
+            assertEquals(1, recorder.knownContainers());
+
+            JsonNodeUtils.addAFieldByPath(jsonNode, new String[]{"policy"}, "status", "active");
+
+            assertEquals(3, recorder.knownContainers());
+            assertEquals("/policy/status", recorder.toPatch().get(0).get("path").asText());
+        }
+    }
+
+    @Test
+    public void testFindsNodesReachedWithoutAPath() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree("{\"a\":[{\"b\":{}},{\"b\":{\"c\":{}}}],\"d\":{}}");
+        JsonNode detached = jsonNode.get("d");
+
+        try (JsonPatchRecorder recorder = JsonPatchRecorder.start(jsonNode)) {
+            JsonNodeUtils.addAFieldByPath(jsonNode.get("a").get(1).get("b"), new String[]{"c"}, "k", "v");
+            JsonNodeUtils.removeFieldByPathAndName(jsonNode, new String[]{}, "d");
+            JsonNodeUtils.addAFieldByPath(detached, new String[]{}, "k", "v");
+
+            assertEquals(objectMapper.readTree("["
+                    + "{\"op\":\"add\",\"path\":\"/a/1/b/c/k\",\"value\":\"v\"},"
+                    + "{\"op\":\"remove\",\"path\":\"/d\"}]"), recorder.toPatch());
+        }
+    }
+
+    @Test
+    public void testRecordsParallelWorkers() {
+        ObjectNode jsonNode = JsonNodeFactory.instance.objectNode();
+        ArrayNode rules = jsonNode.putObject("policy").putArray("rules");
+        for (int i = 0; i < 100; i++) {
+            rules.addObject().put("name", "rule-" + i);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try (JsonPatchRecorder recorder = JsonPatchRecorder.start(jsonNode)) {
+            new ParallelArrayProcessor(pool, 8).addFieldToArrayFieldByPathAndFieldName(
+                    jsonNode, new String[]{"policy", "rules"}, "readOnly", "name", Map.of("rule-57", true));
+
+            assertEquals(100, recorder.size());
+            assertTrue(recorder.toPatch().toString().contains("{\"op\":\"add\",\"path\":\"/policy/rules/57/readOnly\",\"value\":true}"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testEscape() {
+        assertEquals("plain", JsonPatchRecorder.escape("plain"));
+        assertEquals("a~1b~0c", JsonPatchRecorder.escape("a/b~c"));
+    }
+}
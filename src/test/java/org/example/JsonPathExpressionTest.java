@@ -0,0 +1,84 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonPathExpressionTest {
+
+    private static final String POLICY = "{\"policy\":{\"rules\":["
+            + "{\"name\":\"r1\",\"spec\":{\"ports\":[{\"p\":80,\"tmp\":1},{\"p\":443,\"tmp\":2}]}},"
+            + "{\"name\":\"r2\",\"spec\":{\"ports\":[{\"p\":22,\"tmp\":3}]}},"
+            + "{\"name\":\"r3\"}]}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testParse() {
+        JsonPathExpression expression = JsonPathExpression.parse("policy.rules[*].spec.ports[1]");
+
+        assertArrayEquals(new String[]{"policy", "rules", "[*]", "spec", "ports", "[1]"}, expression.toArray());
+        assertEquals("policy.rules[*].spec.ports[1]", expression.toString());
+        assertSame(expression, JsonPathExpression.compile("policy", "rules", "[*]", "spec", "ports", "[1]"));
+        assertFalse(expression.isDefinite());
+        assertTrue(JsonPathExpression.parse("policy.rules[0]").isDefinite());
+        assertEquals(0, JsonPathExpression.parse("").size());
+        assertThrows(IllegalArgumentException.class, () -> JsonPathExpression.parse("rules[x]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonPathExpression.parse("rules[*"));
+    }
+
+    @Test
+    public void testSelectFansOutAtAnyDepth() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(POLICY);
+
+        List<JsonNode> ports = JsonPathExpression.parse("policy.rules[*].spec.ports[*].p").select(jsonNode);
+        List<JsonNode> second = JsonPathExpression.parse("policy.rules[0].spec.ports[1].p").select(jsonNode);
+
+        assertEquals(List.of(80, 443, 22), List.of(ports.get(0).intValue(), ports.get(1).intValue(), ports.get(2).intValue()));
+        assertEquals(443, second.get(0).intValue());
+        assertTrue(JsonPathExpression.parse("policy.rules[7]").select(jsonNode).isEmpty());
+        assertTrue(JsonPathExpression.parse("policy.missing[*]").select(jsonNode).isEmpty());
+    }
+
+    @Test
+    public void testRemoveFieldByExpression() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(POLICY);
+
+        JsonNodeUtils.removeFieldByExpression(jsonNode, JsonPathExpression.parse("policy.rules[*].spec.ports[*]"), "tmp");
+
+        assertEquals("[{\"p\":80},{\"p\":443}]", jsonNode.at("/policy/rules/0/spec/ports").toString());
+        assertEquals("[{\"p\":22}]", jsonNode.at("/policy/rules/1/spec/ports").toString());
+    }
+
+    @Test
+    public void testRemoveFieldByExpressionSkipsNonObjects() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree("{\"rules\":[{\"tmp\":1,\"name\":\"r1\"},\"r2\",7,[{\"tmp\":2}],null]}");
+
+        JsonNodeUtils.removeFieldByExpression(jsonNode, JsonPathExpression.parse("rules[*]"), "tmp");
+
+        assertEquals(objectMapper.readTree("{\"rules\":[{\"name\":\"r1\"},\"r2\",7,[{\"tmp\":2}],null]}"), jsonNode);
+    }
+
+    @Test
+    public void testTrieSharesPrefixes() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(POLICY);
+        List<String> seen = new ArrayList<>();
+
+        JsonPathTrie trie = JsonPathTrie.builder()
+                .add("policy.rules[*].name", node -> seen.add(node.textValue()))
+                .add("policy.rules[*].spec.ports[*]", node -> seen.add(node.get("p").asText()))
+                .add("policy.rules[*]", node -> seen.add("rule"))
+                .build();
+        trie.apply(jsonNode);
+
+        assertEquals(3, trie.expressionCount());
+        assertEquals(7, trie.nodeCount());
+        assertEquals(List.of("rule", "r1", "80", "443", "rule", "r2", "22", "rule", "r3"), seen);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonPathTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testCompileIsInterned() {
+        JsonPath first = JsonPath.compile("policy", "rules");
+        JsonPath second = JsonPath.compile(new String[]{"policy", "rules"});
+
+        assertSame(first, second);
+        assertSame(first, JsonPath.parse("policy.rules"));
+        assertSame(JsonPath.ROOT, JsonPath.compile());
+    }
+
+    @Test
+    public void testCompileRejectsNullSegments() {
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("policy", null));
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile((String[]) null));
+    }
+
+    @Test
+    public void testCompileCopiesInput() {
+        String[] pathFields = {"a", "b"};
+        JsonPath path = JsonPath.compile(pathFields);
+        pathFields[1] = "c";
+
+        assertEquals("a.b", path.toString());
+    }
+
+    @Test
+    public void testResolveAndParent() throws JsonProcessingException {
+        JsonNode jsonNode = objectMapper.readTree("{\"a\":{\"b\":{\"c\":\"value\"}}}");
+        JsonPath path = JsonPath.compile("a", "b", "c");
+
+        assertEquals("value", path.resolve(jsonNode).asText());
+        assertEquals(JsonPath.compile("a", "b"), path.parent());
+        assertEquals("c", path.lastSegment());
+        assertSame(JsonPath.ROOT, JsonPath.compile("a").parent());
+        assertNull(JsonPath.compile("a", "x").resolve(jsonNode));
+    }
+
+    @Test
+    public void testJsonNodeUtilsOverloadsMatchArrayVariants() throws JsonProcessingException {
+        String json = "{\"policy\":{\"rules\":[{\"name\":\"r1\",\"ports\":[\"80\",\"443\"]},{\"name\":\"r2\",\"ports\":[]}]}}";
+        JsonNode expected = objectMapper.readTree(json);
+        JsonNode actual = objectMapper.readTree(json);
+        String[] pathFields = {"policy", "rules"};
+        JsonPath path = JsonPath.compile(pathFields);
+
+        JsonNodeUtils.addPositionByPath(expected, pathFields, "position");
+        JsonNodeUtils.addPositionByPath(actual, path, "position");
+        JsonNodeUtils.convertFieldByPath(expected, new String[]{"policy", "rules", "ports"}, values -> String.join(",", values));
+        JsonNodeUtils.convertFieldByPath(actual, JsonPath.compile("policy", "rules", "ports"), values -> String.join(",", values));
+
+        assertEquals(expected, actual);
+        assertEquals(List.of(), JsonNodeUtils.getSListFieldValueByPath(actual, JsonPath.compile("missing")));
+    }
+}
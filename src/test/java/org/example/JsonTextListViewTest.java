@@ -0,0 +1,90 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonTextListViewTest {
+
+    private static final String POLICY = "{\"policy\":{\"tags\":[\"a\",\"b\",7],\"ports\":[80,\"443\",8080],"
+            + "\"flags\":[true,false,\"true\"],\"rules\":[{\"ports\":[\"1\",\"2\"]}]}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testViewReadsThroughToArray() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(POLICY);
+
+        List<String> view = JsonNodeUtils.getSListFieldViewByPath(jsonNode, new String[]{"policy", "tags"});
+
+        assertEquals(List.of("a", "b", "7"), view);
+        assertTrue(view.contains("7"));
+        assertFalse(view.contains("c"));
+        assertEquals("a,b", view.stream().limit(2).collect(Collectors.joining(",")));
+        ((ArrayNode) jsonNode.get("policy").get("tags")).add("c");
+        assertEquals(4, view.size());
+        assertThrows(UnsupportedOperationException.class, () -> view.add("d"));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(9));
+        assertTrue(JsonNodeUtils.getSListFieldViewByPath(jsonNode, JsonPath.parse("policy.missing")).isEmpty());
+    }
+
+    @Test
+    public void testPrimitiveExtractors() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(POLICY);
+        JsonPath ports = JsonPath.parse("policy.ports");
+
+        assertArrayEquals(new int[]{80, 443, 8080}, JsonNodeUtils.getIntArrayByPath(jsonNode, ports));
+        assertArrayEquals(new long[]{80, 443, 8080}, JsonNodeUtils.getLongArrayByPath(jsonNode, new String[]{"policy", "ports"}));
+        assertArrayEquals(new boolean[]{true, false, true}, JsonNodeUtils.getBooleanArrayByPath(jsonNode, JsonPath.parse("policy.flags")));
+        assertEquals(8603, JsonNodeUtils.getIntStreamByPath(jsonNode, ports).sum());
+        assertEquals(0, JsonNodeUtils.getIntArrayByPath(jsonNode, JsonPath.parse("policy.missing")).length);
+    }
+
+    @Test
+    public void testConvertFieldByPathViewPassesReadOnlyView() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(POLICY);
+
+        JsonNodeUtils.convertFieldByPathView(jsonNode, new String[]{"policy", "rules", "ports"}, values -> {
+            assertInstanceOf(JsonTextListView.class, values);
+            assertThrows(UnsupportedOperationException.class, () -> values.add("3"));
+            return String.join("-", values);
+        });
+
+        assertEquals("1-2", jsonNode.get("policy").get("rules").get(0).get("ports").textValue());
+    }
+
+    @Test
+    public void testConvertFieldByPathStillPassesMutableCopy() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(POLICY);
+        List<List<String>> kept = new ArrayList<>();
+
+        JsonNodeUtils.convertFieldByPath(jsonNode, JsonPath.parse("policy.rules.ports"), values -> {
+            values.add("3");
+            kept.add(values);
+            return String.join("-", values);
+        });
+
+        assertEquals("1-2-3", jsonNode.get("policy").get("rules").get(0).get("ports").textValue());
+        assertEquals(List.of("1", "2", "3"), kept.get(0));
+    }
+
+    @Test
+    public void testPlanConvertFieldByPathView() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(POLICY);
+
+        TransformPlan.builder()
+                .convertFieldByPathView(JsonPath.parse("policy.rules.ports"), values -> values.get(0) + "+" + values.size())
+                .build()
+                .apply(jsonNode);
+
+        assertEquals("1+2", jsonNode.get("policy").get("rules").get(0).get("ports").textValue());
+    }
+}
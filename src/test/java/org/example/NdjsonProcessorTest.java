@@ -0,0 +1,125 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NdjsonProcessorTest {
+
+    private final TransformPlan plan = Main.parsePlan(List.of("addPositionByPath:rules:position", "removeFieldByPathAndName::tmp"));
+
+    @Test
+    public void testProcessKeepsOrderAndSkipsBadRecords() throws IOException, InterruptedException {
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            input.append("{\"id\":").append(i).append(",\"tmp\":true,\"rules\":[{},{}]}\r\n");
+            expected.append("{\"id\":").append(i).append(",\"rules\":[{\"position\":0},{\"position\":1}]}\n");
+            if (i == 100) {
+                input.append("{\"id\":\n\n   \n");
+            }
+            if (i == 200) {
+                input.append("{\"id\":-1}\n");
+            }
+        }
+        input.setLength(input.length() - 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NdjsonProcessor.Result result = new NdjsonProcessor(plan, 8, 16)
+                .process(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), out);
+
+        assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+        assertEquals(500, result.getRecords());
+        assertEquals(2, result.getFailures());
+        assertEquals(List.of("line 102: ", "line 205: No array at path 'rules'"),
+                List.of(result.getErrors().get(0).substring(0, 10), result.getErrors().get(1)));
+        assertEquals(List.of("read", "parse", "transform", "write"),
+                result.getStages().stream().map(NdjsonProcessor.StageStats::getName).collect(Collectors.toList()));
+        assertEquals(502, result.getStages().get(0).getRecords());
+        assertEquals(501, result.getStages().get(2).getRecords());
+    }
+
+    @Test
+    public void testWriteFailureStopsPipeline() {
+        InputStream endless = new InputStream() {
+            @Override
+            public int read() {
+                return '\n';
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                byte[] record = "{\"rules\":[]}\n".getBytes(StandardCharsets.UTF_8);
+                int n = Math.min(len, record.length);
+                System.arraycopy(record, 0, b, off, n);
+                return n;
+            }
+        };
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+
+        IOException e = assertThrows(IOException.class, () -> new NdjsonProcessor(plan, 4, 1).process(endless, broken));
+        assertEquals("disk full", e.getMessage());
+    }
+
+    @Test
+    public void testWriteFailureReleasesBlockedReader() {
+        CountDownLatch closed = new CountDownLatch(1);
+        InputStream stdin = new InputStream() {
+            private boolean sent;
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (!sent) {
+                    sent = true;
+                    byte[] record = "{\"rules\":[]}\n".getBytes(StandardCharsets.UTF_8);
+                    System.arraycopy(record, 0, b, off, record.length);
+                    return record.length;
+                }
+                try {
+                    // like a terminal with no more input: only close() ends the read
+                    closed.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return -1;
+            }
+
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+        };
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+
+        IOException e = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(IOException.class, () -> new NdjsonProcessor(plan, 4, 1).process(stdin, broken)));
+        assertEquals("disk full", e.getMessage());
+        assertEquals(0, closed.getCount());
+    }
+}
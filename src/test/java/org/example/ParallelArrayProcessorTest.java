@@ -0,0 +1,90 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelArrayProcessorTest {
+
+    private static final String[] RULES = {"policy", "rules"};
+
+    private ForkJoinPool pool;
+    private ParallelArrayProcessor processor;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        processor = new ParallelArrayProcessor(pool, 8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static JsonNode policy(int size) {
+        ArrayNode rules = JsonNodeFactory.instance.arrayNode();
+        for (int i = 0; i < size; i++) {
+            ObjectNode rule = rules.addObject();
+            rule.put("name", "rule-" + i);
+            rule.put("tmp", i);
+            rule.putArray("ports").add("80").add(Integer.toString(i));
+        }
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
+        root.putObject("policy").set("rules", rules);
+        return root;
+    }
+
+    @Test
+    public void testParallelVariantsMatchSequential() {
+        JsonNode expected = policy(5000);
+        JsonNode actual = policy(5000);
+        Map<String, Boolean> readOnly = new HashMap<>();
+        for (int i = 0; i < 5000; i += 3) {
+            readOnly.put("rule-" + i, true);
+        }
+
+        JsonNodeUtils.addFieldToArrayFieldByPathAndFieldName(expected, RULES, "readOnly", "name", readOnly);
+        JsonNodeUtils.convertFieldByPath(expected, new String[]{"policy", "rules", "ports"}, ports -> String.join("|", ports));
+        JsonNodeUtils.removeFieldOfListByPathAndName(expected, RULES, "tmp");
+
+        processor.addFieldToArrayFieldByPathAndFieldName(actual, RULES, "readOnly", "name", readOnly);
+        processor.convertFieldByPath(actual, new String[]{"policy", "rules", "ports"}, ports -> String.join("|", ports));
+        processor.removeFieldOfListByPathAndName(actual, RULES, "tmp");
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testParallelPlanMatchesSequentialPlan() {
+        TransformPlan plan = TransformPlan.builder()
+                .addAFieldByPath(new String[]{"policy"}, "status", "active")
+                .addPositionByPath(RULES, "position")
+                .removeFieldOfListByPathAndName(RULES, "tmp")
+                .removeFieldOfListByPathAndName(new String[]{"policy", "missing"}, "tmp")
+                .build();
+        JsonNode expected = policy(1000);
+        JsonNode actual = policy(1000);
+
+        plan.apply(expected);
+        processor.apply(plan, actual);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testRejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelArrayProcessor(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelArrayProcessor(pool, 0));
+    }
+}
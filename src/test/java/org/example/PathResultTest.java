@@ -0,0 +1,76 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathResultTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testTryGetStringFieldValueByPath() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree("{\"policy\":{\"name\":\"p\",\"size\":3}}");
+
+        assertEquals("p", JsonNodeUtils.tryGetStringFieldValueByPath(jsonNode, new String[]{"policy", "name"}).textValue());
+
+        PathResult missing = JsonNodeUtils.tryGetStringFieldValueByPath(jsonNode, new String[]{"policy", "meta", "owner"});
+        assertEquals(PathResult.Status.MISSING, missing.getStatus());
+        assertEquals(1, missing.getFailingSegment());
+        assertNull(missing.textValue());
+
+        PathResult wrongType = JsonNodeUtils.tryGetStringFieldValueByPath(jsonNode, new String[]{"policy", "size"});
+        assertEquals(PathResult.Status.WRONG_TYPE, wrongType.getStatus());
+        assertEquals(1, wrongType.getFailingSegment());
+        // the plain getter reports the same node as null instead
+        assertNull(JsonNodeUtils.getStringFieldValueByPath(jsonNode, new String[]{"policy", "size"}));
+        assertEquals(3, JsonNodeUtils.tryGetStringFieldValueByPath(jsonNode, JsonPath.parse("policy.size")).getNode().asInt());
+    }
+
+    @Test
+    public void testTryAddPositionByPath() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree("{\"policy\":{\"rules\":[{},{}],\"tags\":[{},\"x\"]}}");
+
+        assertTrue(JsonNodeUtils.tryAddPositionByPath(jsonNode, new String[]{"policy", "rules"}, "position").isOk());
+        assertEquals("[{\"position\":0},{\"position\":1}]", jsonNode.get("policy").get("rules").toString());
+
+        assertEquals(PathResult.Status.WRONG_TYPE, JsonNodeUtils.tryAddPositionByPath(jsonNode, new String[]{"policy"}, "position").getStatus());
+        PathResult element = JsonNodeUtils.tryAddPositionByPath(jsonNode, new String[]{"policy", "tags"}, "position");
+        assertEquals("WRONG_TYPE at segment 1 of element 1", element.toString());
+        assertEquals("MISSING at segment 0", JsonNodeUtils.tryAddPositionByPath(jsonNode, new String[]{"other", "rules"}, "position").toString());
+    }
+
+    @Test
+    public void testStringOverloadsDoNotCompilePaths() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree("{\"rules\":[{\"spec\":{\"ports\":[]}}]}");
+        String[] rules = {"rules-" + System.nanoTime()};
+        int cached = JsonPath.cacheSize();
+
+        assertEquals(PathResult.Status.MISSING, JsonNodeUtils.tryResolve(jsonNode, rules).getStatus());
+        assertEquals(PathResult.Status.MISSING, JsonNodeUtils.tryAddPositionByPath(jsonNode, rules, "position").getStatus());
+        assertTrue(JsonNodeUtils.tryCleanArrayFieldIfArrayIsEmpty(jsonNode, new String[]{"rules"}, new String[]{"spec"}, "ports").isOk());
+
+        assertEquals(cached, JsonPath.cacheSize());
+        assertFalse(jsonNode.get("rules").get(0).get("spec").has("ports"));
+    }
+
+    @Test
+    public void testTryElementLevelFailures() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree("{\"rules\":[{\"profiles\":{\"group\":\"\"},\"spec\":{\"ports\":[]}},{\"spec\":{}}]}");
+
+        PathResult convert = JsonNodeUtils.tryConvertEmptyStringFieldToEmptyMap(new String[]{"rules"}, jsonNode, "profiles", "group");
+        assertEquals(PathResult.Status.MISSING, convert.getStatus());
+        assertEquals(1, convert.getFailingSegment());
+        assertEquals(1, convert.getElementIndex());
+        assertEquals("{}", jsonNode.get("rules").get(0).get("profiles").toString());
+
+        PathResult clean = JsonNodeUtils.tryCleanArrayFieldIfArrayIsEmpty(jsonNode, new String[]{"rules"}, new String[]{"spec"}, "ports");
+        assertEquals(2, clean.getFailingSegment());
+        assertEquals(1, clean.getElementIndex());
+        assertFalse(jsonNode.get("rules").get(0).get("spec").has("ports"));
+    }
+}
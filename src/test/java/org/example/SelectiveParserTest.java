@@ -0,0 +1,54 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SelectiveParserTest {
+
+    private static final String POLICY = "{\"policy\":{\"name\":\"p\",\"meta\":{\"owner\":\"é\",\"tags\":[1,{\"x\":null}]},"
+            + "\"rules\":[{\"name\":\"r1\",\"tmp\":1},{\"name\":\"r2\"}]},\"audit\":[{\"at\":1},{\"at\":2}],\"version\":null}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testOnlyPlanPathsAreMaterialized() throws IOException {
+        TransformPlan plan = Main.parsePlan(List.of("removeFieldOfListByPathAndName:policy.rules:tmp",
+                "addPositionByPath:policy.rules:position", "addAFieldByPath:policy:checked:yes"));
+        JsonNode expected = objectMapper.readTree(POLICY);
+        plan.apply(expected);
+
+        byte[] input = ("  " + POLICY).getBytes(StandardCharsets.UTF_8);
+        JsonNode jsonNode = SelectiveParser.forPlan(plan).parse(input, 2, input.length - 2);
+        plan.apply(jsonNode);
+
+        assertTrue(jsonNode.get("audit").isPojo());
+        assertTrue(jsonNode.get("policy").get("meta").isPojo());
+        assertTrue(jsonNode.get("policy").get("rules").isArray());
+        assertTrue(jsonNode.get("version").isNull());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonBytes.write(jsonNode, out);
+        assertEquals(expected, objectMapper.readTree(out.toByteArray()));
+        assertEquals(expected, objectMapper.readTree(objectMapper.writeValueAsString(jsonNode)));
+    }
+
+    @Test
+    public void testPathsAreReadInFull() throws IOException {
+        JsonNode jsonNode = new SelectiveParser(JsonPath.parse("policy.meta"), JsonPath.parse("missing.path"))
+                .parse(POLICY.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("é", JsonNodeUtils.getStringFieldValueByPath(jsonNode, JsonPath.parse("policy.meta.owner")));
+        assertTrue(jsonNode.get("policy").get("meta").get("tags").get(1).get("x").isNull());
+        assertTrue(jsonNode.get("policy").get("rules").isPojo());
+        assertEquals(objectMapper.readTree(POLICY), objectMapper.readTree(jsonNode.toString()));
+        assertEquals("[1,2]", new SelectiveParser(JsonPath.parse("a")).parse("[1,2]".getBytes(StandardCharsets.UTF_8)).toString());
+    }
+}
@@ -0,0 +1,88 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmileBytesTest {
+
+    private static final String JSON = "{\"policy\":{\"rules\":[{\"name\":\"r\\u00e9gle\",\"protocol\":\"tcp\"},"
+            + "{\"name\":\"r2\",\"protocol\":\"tcp\"},{\"name\":\"r3\",\"protocol\":\"tcp\"}]}}";
+    private static final String[] RULES = {"policy", "rules"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] smile(JsonNode jsonNode) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SmileBytes.write(jsonNode, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(JSON);
+        byte[] smile = smile(jsonNode);
+
+        assertTrue(SmileBytes.isSmile(smile, 0, smile.length));
+        assertFalse(SmileBytes.isSmile(JSON.getBytes(StandardCharsets.UTF_8), 0, JSON.length()));
+        assertTrue(smile.length < JSON.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(jsonNode, SmileBytes.read(smile));
+        assertEquals(jsonNode, SmileBytes.read(new ByteArrayInputStream(smile)));
+        assertEquals(jsonNode, SmileBytes.readEither(smile));
+        assertEquals(jsonNode, SmileBytes.readEither(JSON.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testReadLeavesStreamOpen() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(JSON);
+        boolean[] closed = new boolean[1];
+        ByteArrayInputStream in = new ByteArrayInputStream(smile(jsonNode)) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        assertEquals(jsonNode, SmileBytes.read(in));
+        assertFalse(closed[0]);
+    }
+
+    @Test
+    public void testTransform() throws IOException {
+        JsonNode expected = objectMapper.readTree(JSON);
+        JsonNodeUtils.addPositionByPath(expected, RULES, "position");
+        TransformPlan plan = TransformPlan.builder().addPositionByPath(RULES, "position").build();
+
+        ByteBuffer result = SmileBytes.transformToBuffer(smile(objectMapper.readTree(JSON)), plan::apply);
+        byte[] bytes = new byte[result.remaining()];
+        result.get(bytes);
+
+        assertEquals(expected, SmileBytes.read(bytes));
+    }
+
+    @Test
+    public void testStreamingJsonToSmile() throws IOException {
+        JsonNode expected = objectMapper.readTree(JSON);
+        JsonNodeUtils.addPositionByPath(expected, RULES, "position");
+        StreamingTransformer transformer = new StreamingTransformer(TransformPlan.builder().addPositionByPath(RULES, "position").build());
+
+        ByteArrayOutputStream smile = new ByteArrayOutputStream();
+        transformer.transform(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)),
+                JsonMappers.getObjectMapper().getFactory(), smile, SmileBytes.getFactory());
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        transformer.transform(new ByteArrayInputStream(smile.toByteArray()), SmileBytes.getFactory(),
+                json, JsonMappers.getObjectMapper().getFactory());
+
+        assertEquals(expected, SmileBytes.read(smile.toByteArray()));
+        JsonNode twice = objectMapper.readTree(json.toByteArray());
+        assertEquals(2, twice.get("policy").get("rules").get(2).get("position").asInt());
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingTransformerTest {
+
+    private static final String POLICY = "{\"version\":1,\"policy\":{\"name\":\"p\",\"owner\":\"x\",\"rules\":["
+            + "{\"name\":\"r1\",\"tmp\":1,\"profiles\":{\"group\":\"\"},\"details\":{\"author\":\"\",\"publisher\":\"\"},\"match\":{\"ports\":[]}},"
+            + "{\"name\":\"r2\",\"tmp\":2,\"profiles\":{\"group\":\"g\"},\"details\":{\"author\":\"a\",\"publisher\":\"\"},\"match\":{\"ports\":[\"80\"]}}"
+            + "]},\"untouched\":[1,2,{\"deep\":[true,null]}]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testStreamingMatchesTreeMode() throws IOException {
+        String[] rules = {"policy", "rules"};
+        TransformPlan plan = TransformPlan.builder()
+                .removeFieldByPathAndName(new String[]{"policy"}, "owner")
+                .addAFieldByPath(new String[]{"policy"}, "name", "renamed")
+                .addAFieldByPath(new String[]{"policy"}, "status", "active")
+                .removeFieldOfListByPathAndName(rules, "tmp")
+                .addPositionByPath(rules, "position")
+                .addFieldToArrayFieldByPathAndFieldName(rules, "readOnly", "name", Map.of("r1", true, "r2", false))
+                .convertEmptyStringFieldToEmptyMap(rules, "profiles", "group")
+                .cleanFieldOfTwoEmptyFields(rules, "details", "author", "publisher")
+                .cleanArrayFieldIfArrayIsEmpty(rules, new String[]{"match"}, "ports")
+                .build();
+
+        JsonNode expected = objectMapper.readTree(POLICY);
+        plan.apply(expected);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new StreamingTransformer(plan).transform(new ByteArrayInputStream(POLICY.getBytes(StandardCharsets.UTF_8)), out);
+
+        assertEquals(expected, objectMapper.readTree(out.toByteArray()));
+    }
+
+    @Test
+    public void testStreamingMissingArray() throws IOException {
+        TransformPlan lenient = TransformPlan.builder().removeFieldOfListByPathAndName(new String[]{"missing"}, "x").build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new StreamingTransformer(lenient).transform(new ByteArrayInputStream(POLICY.getBytes(StandardCharsets.UTF_8)), out);
+        assertEquals(objectMapper.readTree(POLICY), objectMapper.readTree(out.toByteArray()));
+
+        TransformPlan strict = TransformPlan.builder().addPositionByPath(new String[]{"missing"}, "position").build();
+        assertThrows(NullPointerException.class, () -> new StreamingTransformer(strict)
+                .transform(new ByteArrayInputStream(POLICY.getBytes(StandardCharsets.UTF_8)), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void testObjectEditOnNonObjectFailsLikeTreeMode() throws IOException {
+        TransformPlan plan = TransformPlan.builder().addAFieldByPath(new String[]{"untouched"}, "owner", "me").build();
+
+        assertThrows(ClassCastException.class, () -> plan.apply(objectMapper.readTree(POLICY)));
+        assertThrows(ClassCastException.class, () -> new StreamingTransformer(plan)
+                .transform(new ByteArrayInputStream(POLICY.getBytes(StandardCharsets.UTF_8)), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void testRejectsPlansThatCannotBeStreamed() {
+        TransformPlan plan = TransformPlan.builder()
+                .removeFieldByPathAndName(new String[]{"policy"}, "rules")
+                .addPositionByPath(new String[]{"policy", "rules"}, "position")
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> new StreamingTransformer(plan));
+    }
+
+    @Test
+    public void testRejectsElementGroupAboveAnotherGroup() {
+        TransformPlan plan = TransformPlan.builder()
+                .addPositionByPath(new String[]{"policy", "rules"}, "position")
+                .addPositionByPath(new String[]{"policy", "rules", "ports"}, "position")
+                .build();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new StreamingTransformer(plan));
+        assertEquals("Plan walks the elements of 'policy.rules' and a path below it and cannot be streamed", e.getMessage());
+    }
+}
@@ -0,0 +1,108 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class StructuralCopyTest {
+
+    private static final String POLICY = "{\"meta\":{\"owner\":\"a\"},\"policy\":{\"rules\":["
+            + "{\"name\":\"r1\",\"details\":{\"author\":\"\",\"publisher\":\"\"},\"spec\":{\"ports\":[]}},"
+            + "{\"name\":\"r2\",\"details\":{\"author\":[\"x\"],\"publisher\":\"\"},\"spec\":{\"ports\":[80]}}]}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TransformPlan plan() {
+        return TransformPlan.builder()
+                .cleanFieldOfTwoEmptyFields(new String[]{"policy", "rules"}, "details", "author", "publisher")
+                .cleanArrayFieldIfArrayIsEmpty(new String[]{"policy", "rules"}, new String[]{"spec"}, "ports")
+                .addAFieldByPath(new String[]{"policy"}, "version", "2")
+                .build();
+    }
+
+    @Test
+    public void testApplyCopyOnWriteLeavesInputUntouched() throws IOException {
+        JsonNode template = objectMapper.readTree(POLICY);
+        JsonNode expected = objectMapper.readTree(POLICY);
+        plan().apply(expected);
+
+        JsonNode result = plan().applyCopyOnWrite(template);
+
+        assertEquals(expected, result);
+        assertEquals(objectMapper.readTree(POLICY), template);
+        assertNotSame(template, result);
+    }
+
+    @Test
+    public void testApplyCopyOnWriteSharesUntouchedSubtrees() throws IOException {
+        JsonNode template = objectMapper.readTree(POLICY);
+
+        JsonNode result = plan().applyCopyOnWrite(template);
+
+        assertSame(template.get("meta"), result.get("meta"));
+        JsonNode templateRule = template.get("policy").get("rules").get(1);
+        JsonNode resultRule = result.get("policy").get("rules").get(1);
+        assertSame(templateRule, resultRule);
+        assertNotSame(template.get("policy").get("rules").get(0), result.get("policy").get("rules").get(0));
+        assertNotSame(template.get("policy").get("rules").get(0).get("spec"), result.get("policy").get("rules").get(0).get("spec"));
+    }
+
+    @Test
+    public void testApplyCopyOnWriteDoesNotCopyElementsThatStayUnchanged() throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        StringBuilder json = new StringBuilder("{\"rules\":[");
+        for (int i = 0; i < 20_000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"name\":\"r").append(i)
+                    .append("\",\"details\":{\"author\":[\"a\"],\"publisher\":\"\"},\"spec\":{\"ports\":[80]}}");
+        }
+        JsonNode template = objectMapper.readTree(json.append("]}").toString());
+        TransformPlan plan = TransformPlan.builder()
+                .cleanFieldOfTwoEmptyFields(new String[]{"rules"}, "details", "author", "publisher")
+                .cleanArrayFieldIfArrayIsEmpty(new String[]{"rules"}, new String[]{"spec"}, "ports")
+                .build();
+        plan.applyCopyOnWrite(template);
+
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        JsonNode result = plan.applyCopyOnWrite(template);
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+
+        assertTrue(template.equals(result));
+        assertSame(template.get("rules").get(0), result.get("rules").get(0));
+        // Copying each rule and its spec would allocate well over 100 bytes per rule.
+        assertTrue(allocated < 20_000 * 100L, "allocated " + allocated + " bytes");
+    }
+
+    @Test
+    public void testApplyCopyOnWriteOnObjectValuedGroup() throws IOException {
+        String json = "{\"profiles\":{\"a\":{\"name\":\"a\",\"details\":{\"author\":\"\",\"publisher\":\"\"}},"
+                + "\"b\":{\"name\":\"b\",\"details\":{\"author\":\"x\",\"publisher\":\"\"}}}}";
+        TransformPlan plan = TransformPlan.builder()
+                .addPositionByPath(new String[]{"profiles"}, "position")
+                .cleanFieldOfTwoEmptyFields(new String[]{"profiles"}, "details", "author", "publisher")
+                .build();
+        JsonNode template = objectMapper.readTree(json);
+        JsonNode expected = template.deepCopy();
+        plan.apply(expected);
+
+        JsonNode result = plan.applyCopyOnWrite(template);
+
+        assertEquals(expected, result);
+        assertEquals(objectMapper.readTree(json), template);
+        assertEquals(1, result.get("profiles").get("b").get("position").asInt());
+    }
+
+    @Test
+    public void testApplyCopyOnWriteKeepsMissingArraySemantics() throws IOException {
+        JsonNode template = objectMapper.readTree("{\"policy\":{}}");
+        TransformPlan plan = TransformPlan.builder().addPositionByPath(new String[]{"policy", "rules"}, "position").build();
+
+        assertThrows(NullPointerException.class, () -> plan.applyCopyOnWrite(template));
+    }
+}
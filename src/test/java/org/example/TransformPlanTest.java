@@ -0,0 +1,73 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransformPlanTest {
+
+    private static final String POLICY = "{\"policy\":{\"rules\":["
+            + "{\"name\":\"r1\",\"tmp\":1,\"profiles\":{\"group\":\"\"},\"details\":{\"author\":\"\",\"publisher\":\"\"},\"match\":{\"ports\":[]}},"
+            + "{\"name\":\"r2\",\"tmp\":2,\"profiles\":{\"group\":\"g\"},\"details\":{\"author\":\"a\",\"publisher\":\"\"},\"match\":{\"ports\":[\"80\"]}}"
+            + "]},\"meta\":{\"owners\":[{\"id\":\"o1\"}]}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testPlanMatchesSequentialCalls() throws JsonProcessingException {
+        JsonNode expected = objectMapper.readTree(POLICY);
+        JsonNode actual = objectMapper.readTree(POLICY);
+        String[] rules = {"policy", "rules"};
+        String[] owners = {"meta", "owners"};
+        Map<String, Boolean> readOnly = Map.of("r1", true, "r2", false);
+
+        JsonNodeUtils.removeFieldOfListByPathAndName(expected, rules, "tmp");
+        JsonNodeUtils.addPositionByPath(expected, rules, "position");
+        JsonNodeUtils.addFieldToArrayFieldByPathAndFieldName(expected, owners, "active", true);
+        JsonNodeUtils.addFieldToArrayFieldByPathAndFieldName(expected, rules, "readOnly", "name", readOnly);
+        JsonNodeUtils.convertEmptyStringFieldToEmptyMap(rules, expected, "profiles", "group");
+        JsonNodeUtils.cleanFieldOfTwoEmptyFields(expected, rules, "details", "author", "publisher");
+        JsonNodeUtils.cleanArrayFieldIfArrayIsEmpty(expected, rules, new String[]{"match"}, "ports");
+
+        TransformPlan plan = TransformPlan.builder()
+                .removeFieldOfListByPathAndName(rules, "tmp")
+                .addPositionByPath(rules, "position")
+                .addFieldToArrayFieldByPathAndFieldName(owners, "active", true)
+                .addFieldToArrayFieldByPathAndFieldName(rules, "readOnly", "name", readOnly)
+                .convertEmptyStringFieldToEmptyMap(rules, "profiles", "group")
+                .cleanFieldOfTwoEmptyFields(rules, "details", "author", "publisher")
+                .cleanArrayFieldIfArrayIsEmpty(rules, new String[]{"match"}, "ports")
+                .build();
+        plan.apply(actual);
+
+        assertEquals(expected, actual);
+        assertEquals(2, plan.traversalCount());
+    }
+
+    @Test
+    public void testPlanDoesNotFuseAcrossRelatedPaths() {
+        TransformPlan plan = TransformPlan.builder()
+                .addPositionByPath(new String[]{"a"}, "position")
+                .removeFieldOfListByPathAndName(new String[]{"a", "b"}, "x")
+                .addFieldToArrayFieldByPathAndFieldName(new String[]{"a"}, "flag", true)
+                .build();
+
+        assertEquals(3, plan.traversalCount());
+    }
+
+    @Test
+    public void testPlanMissingArray() throws JsonProcessingException {
+        JsonNode jsonNode = objectMapper.readTree("{\"a\":{}}");
+
+        TransformPlan.builder().removeFieldOfListByPathAndName(new String[]{"a", "rules"}, "x").build().apply(jsonNode);
+        assertEquals(objectMapper.readTree("{\"a\":{}}"), jsonNode);
+
+        TransformPlan strictPlan = TransformPlan.builder().addPositionByPath(new String[]{"a", "rules"}, "position").build();
+        assertThrows(NullPointerException.class, () -> strictPlan.apply(jsonNode));
+    }
+}
@@ -0,0 +1,80 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransformResultCacheTest {
+
+    private static final String POLICY = "{\"policy\":{\"rules\":[{\"name\":\"r1\"},{\"name\":\"r2\"}]}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TransformPlan positions = Main.parsePlan(List.of("addPositionByPath:policy.rules:position"));
+
+    private static String text(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testIdenticalInputsHitTheCache() throws IOException {
+        TransformResultCache cache = new TransformResultCache(1 << 20, 1, TimeUnit.HOURS);
+        byte[] input = POLICY.getBytes(StandardCharsets.UTF_8);
+
+        String first = text(cache.transform(positions, input));
+        String second = text(cache.transform(positions, POLICY.getBytes(StandardCharsets.UTF_8)));
+        byte[] padded = ("  " + POLICY).getBytes(StandardCharsets.UTF_8);
+        String third = text(cache.transform(positions, padded, 2, padded.length - 2));
+
+        assertEquals(objectMapper.readTree("{\"policy\":{\"rules\":[{\"name\":\"r1\",\"position\":0},{\"name\":\"r2\",\"position\":1}]}}"),
+                objectMapper.readTree(first));
+        assertEquals(first, second);
+        assertEquals(first, third);
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+        assertTrue(cache.transform(positions, input).isReadOnly());
+
+        TransformPlan other = Main.parsePlan(List.of("addPositionByPath:policy.rules:index"));
+        assertTrue(text(cache.transform(other, input)).contains("\"index\":0"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEvictionAndExpiry() throws IOException, InterruptedException {
+        byte[] input = POLICY.getBytes(StandardCharsets.UTF_8);
+        TransformResultCache small = new TransformResultCache(400, 1, TimeUnit.HOURS);
+        small.transform(positions, input);
+        small.transform(positions, POLICY.replace("r1", "r3").getBytes(StandardCharsets.UTF_8));
+        assertEquals(1, small.size());
+        assertEquals(1, small.evictions());
+        assertTrue(small.weight() <= 400);
+
+        TransformResultCache shortLived = new TransformResultCache(1 << 20, 1, TimeUnit.MILLISECONDS);
+        shortLived.transform(positions, input);
+        Thread.sleep(5);
+        shortLived.transform(positions, input);
+        assertEquals(1, shortLived.expirations());
+        assertEquals(0, shortLived.hits());
+    }
+
+    @Test
+    public void testHashCoversEveryByte() {
+        byte[] a = "0123456789abcdefXYZ".getBytes(StandardCharsets.UTF_8);
+        byte[] b = a.clone();
+        b[17] = 'z';
+        byte[] c = a.clone();
+        c[3] = '_';
+
+        assertNotEquals(TransformResultCache.hash(a, 0, a.length), TransformResultCache.hash(b, 0, b.length));
+        assertNotEquals(TransformResultCache.hash(a, 0, a.length), TransformResultCache.hash(c, 0, c.length));
+        assertEquals(TransformResultCache.hash(a, 2, 10), TransformResultCache.hash(a.clone(), 2, 10));
+    }
+}
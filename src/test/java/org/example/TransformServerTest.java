@@ -0,0 +1,144 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransformServerTest {
+
+    private static final String POLICY = "{\"policy\":{\"rules\":[{\"name\":\"r1\"},{\"name\":\"r2\"}]}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private TransformServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new TransformServer(0, 1024)
+                .register("positions", TransformPlan.builder().addPositionByPath(new String[]{"policy", "rules"}, "position").build());
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<String> post(String name, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + TransformServer.CONTEXT + name))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** The handler releases its bytes after the response is on the wire, so the client can get there first. */
+    private int availableBytesOnceIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (server.availableBytes() < 1024 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return server.availableBytes();
+    }
+
+    @Test
+    public void testTransform() throws IOException, InterruptedException {
+        HttpResponse<String> response = post("positions", POLICY);
+
+        assertEquals(200, response.statusCode());
+        assertEquals(objectMapper.readTree("{\"policy\":{\"rules\":[{\"name\":\"r1\",\"position\":0},{\"name\":\"r2\",\"position\":1}]}}"),
+                objectMapper.readTree(response.body()));
+        assertEquals(1024, availableBytesOnceIdle());
+    }
+
+    @Test
+    public void testTransformWithResultCache() throws IOException, InterruptedException {
+        TransformResultCache cache = new TransformResultCache(1 << 20, 1, TimeUnit.MINUTES);
+        server.withResultCache(cache);
+
+        HttpResponse<String> first = post("positions", POLICY);
+        HttpResponse<String> second = post("positions", POLICY);
+
+        assertEquals(200, second.statusCode());
+        assertEquals(first.body(), second.body());
+        assertEquals(1, cache.hits());
+        HttpResponse<String> failed = post("positions", "{\"policy\":{}}");
+        assertEquals(422, failed.statusCode());
+        assertEquals("Transform failed", failed.body());
+    }
+
+    @Test
+    public void testErrors() throws IOException, InterruptedException {
+        assertEquals(404, post("unknown", POLICY).statusCode());
+        assertEquals(400, post("positions", "{\"policy\":").statusCode());
+        HttpResponse<String> failed = post("positions", "{\"policy\":{}}");
+        assertEquals(422, failed.statusCode());
+        assertEquals("Transform failed", failed.body());
+        assertEquals(413, post("positions", "[" + "0,".repeat(600) + "0]").statusCode());
+        assertEquals(1024, availableBytesOnceIdle());
+    }
+
+    @Test
+    public void testNegativeContentLengthIsRejected() throws IOException {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(("POST " + TransformServer.CONTEXT + "positions HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Content-Length: -5\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            String status = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+            assertTrue(status.startsWith("HTTP/1.1 400"), status);
+        }
+        assertEquals(1024, availableBytesOnceIdle());
+    }
+
+    @Test
+    public void testRejectsRequestsBeyondThePool() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransformPlan blocking = TransformPlan.builder().convertFieldByPath(new String[]{"policy", "rules", "ports"}, ports -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "";
+        }).build();
+        TransformServer bounded = new TransformServer(0, 1024, TransformServer.newBoundedExecutor(1, 0))
+                .register("blocking", blocking)
+                .register("positions", TransformPlan.builder().addPositionByPath(new String[]{"policy", "rules"}, "position").build());
+        bounded.start();
+        try {
+            String base = "http://localhost:" + bounded.getPort() + TransformServer.CONTEXT;
+            CompletableFuture<HttpResponse<String>> first = client.sendAsync(HttpRequest.newBuilder(URI.create(base + "blocking"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"policy\":{\"rules\":[{\"ports\":[\"80\"]}]}}")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            HttpResponse<String> second = client.send(HttpRequest.newBuilder(URI.create(base + "positions"))
+                    .POST(HttpRequest.BodyPublishers.ofString(POLICY)).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(503, second.statusCode());
+            assertEquals("1", second.headers().firstValue("Retry-After").orElse(null));
+
+            release.countDown();
+            assertEquals(200, first.get(5, TimeUnit.SECONDS).statusCode());
+        } finally {
+            release.countDown();
+            bounded.stop();
+        }
+    }
+}
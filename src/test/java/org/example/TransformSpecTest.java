@@ -0,0 +1,140 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransformSpecTest {
+
+    private static final String SPEC = "{\"plans\":{\"positions\":["
+            + "{\"op\":\"removeFieldOfListByPathAndName\",\"path\":\"policy.rules\",\"field\":\"tmp\"},"
+            + "{\"op\":\"addPositionByPath\",\"path\":\"policy.rules\",\"field\":\"position\"},"
+            + "{\"op\":\"addBooleanFieldToArrayField\",\"path\":\"policy.rules\",\"field\":\"enabled\",\"value\":true}]}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static TransformSpec parse(String spec) throws IOException {
+        return TransformSpec.parse(spec.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCompileAndApply() throws IOException {
+        TransformSpec spec = parse(SPEC);
+        JsonNode jsonNode = objectMapper.readTree("{\"policy\":{\"rules\":[{\"name\":\"r1\",\"tmp\":1},{\"name\":\"r2\"}]}}");
+
+        TransformSpec.CompiledTransform transform = spec.get("positions");
+        transform.apply(jsonNode);
+
+        assertEquals(objectMapper.readTree("{\"policy\":{\"rules\":[{\"name\":\"r1\",\"position\":0,\"enabled\":true},"
+                + "{\"name\":\"r2\",\"position\":1,\"enabled\":true}]}}"), jsonNode);
+        assertEquals(1, transform.getExecutions());
+        assertTrue(transform.averageNanosPerDocument() > 0);
+        assertEquals(1, spec.transforms().size());
+        assertNull(spec.get("unknown"));
+    }
+
+    @Test
+    public void testValidation() {
+        IllegalArgumentException unknownOp = assertThrows(IllegalArgumentException.class,
+                () -> parse("{\"plans\":{\"p\":[{\"op\":\"explode\",\"path\":\"a\"}]}}"));
+        assertTrue(unknownOp.getMessage().startsWith("plans.p[0]: unknown op"), unknownOp.getMessage());
+
+        IllegalArgumentException missingArgument = assertThrows(IllegalArgumentException.class,
+                () -> parse("{\"plans\":{\"p\":[{\"op\":\"addPositionByPath\",\"path\":\"a\",\"field\":\"f\"},"
+                        + "{\"op\":\"addPositionByPath\",\"path\":\"a\"}]}}"));
+        assertTrue(missingArgument.getMessage().startsWith("plans.p[1]: addPositionByPath takes"), missingArgument.getMessage());
+
+        IllegalArgumentException wrongType = assertThrows(IllegalArgumentException.class,
+                () -> parse("{\"plans\":{\"p\":[{\"op\":\"addPositionByPath\",\"path\":\"a\",\"field\":1}]}}"));
+        assertEquals("plans.p[0]: \"field\" must be a string", wrongType.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> parse("{\"plans\":{\"p\":{}}}"));
+        assertThrows(IllegalArgumentException.class, () -> parse("[]"));
+    }
+
+    @Test
+    public void testRegistryReload(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("spec.json");
+        Files.writeString(file, SPEC);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000));
+        TransformRegistry registry = new TransformRegistry(file);
+        TransformSpec first = registry.current();
+
+        assertFalse(registry.reloadIfModified());
+        assertSame(first, registry.current());
+
+        Files.writeString(file, "{\"plans\":{\"other\":[]}}");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000));
+        assertTrue(registry.reloadIfModified());
+        assertNull(registry.get("positions"));
+        assertNotNull(registry.get("other"));
+
+        Files.writeString(file, "{\"plans\":{\"broken\":[{\"op\":\"explode\"}]}}");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(3_000_000));
+        assertThrows(IllegalArgumentException.class, registry::reloadIfModified);
+        assertNotNull(registry.get("other"));
+    }
+
+    @Test
+    public void testServerUsesRegistry(@TempDir Path dir) throws IOException, InterruptedException {
+        Path file = dir.resolve("spec.json");
+        Files.writeString(file, SPEC);
+        TransformRegistry registry = new TransformRegistry(file);
+        TransformServer server = new TransformServer(0, 1024).withRegistry(registry);
+        server.start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + TransformServer.CONTEXT + "positions"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"policy\":{\"rules\":[{\"name\":\"r1\"}]}}"))
+                    .build();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertEquals(objectMapper.readTree("{\"policy\":{\"rules\":[{\"name\":\"r1\",\"position\":0,\"enabled\":true}]}}"),
+                    objectMapper.readTree(response.body()));
+            assertEquals(1, registry.get("positions").getExecutions());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testServerWithSpecAndResultCache(@TempDir Path dir) throws IOException, InterruptedException {
+        Path file = dir.resolve("spec.json");
+        Files.writeString(file, SPEC);
+        TransformRegistry registry = new TransformRegistry(file);
+        TransformServer server = new TransformServer(0, 1024)
+                .withRegistry(registry)
+                .withResultCache(new TransformResultCache(1 << 20, 1, TimeUnit.MINUTES));
+        server.start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + TransformServer.CONTEXT + "positions"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"policy\":{\"rules\":[{\"name\":\"r1\"}]}}"))
+                    .build();
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<String> first = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> second = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, second.statusCode());
+            assertEquals(first.body(), second.body());
+            TransformSpec.CompiledTransform transform = registry.get("positions");
+            assertEquals(1, transform.getExecutions());
+            assertEquals(1, transform.getCacheHits());
+        } finally {
+            server.stop();
+        }
+    }
+}